@@ -0,0 +1,122 @@
+package SuperStore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the results of recent group-by queries over the fact table of an
+ * {@link InstanceGenerator}.
+ * <p>
+ * Results are kept by {@link AggregateQuery} in least recently used order,
+ * and the oldest one is dropped when more than the maximum number of results
+ * would be kept. Every result belongs to the data version of the generator it
+ * was computed at; once the generator reports another version all results
+ * are dropped, so a repeated query is answered from the cache exactly as long
+ * as the data is unchanged.
+ * <p>
+ * Like the generator, a cache is meant to be used from the thread adding the
+ * data.
+ */
+public class AggregateCache {
+    /** The default maximum number of cached results. */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final InstanceGenerator generator;
+    private final Parallelism parallelism;
+    private final LinkedHashMap<AggregateQuery, GroupByResult> results;
+    private long version;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs an AggregateCache with the default size running queries on
+     * the common pool.
+     *
+     * @param generator the generator whose fact table is queried.
+     */
+    public AggregateCache(final InstanceGenerator generator) {
+        this(generator, DEFAULT_MAX_ENTRIES, Parallelism.common());
+    }
+
+    /**
+     * Constructs an AggregateCache.
+     *
+     * @param generator   the generator whose fact table is queried.
+     * @param maxEntries  the maximum number of cached results.
+     * @param parallelism the threads used to compute a missing result.
+     * @throws IllegalArgumentException if maxEntries is not positive.
+     */
+    public AggregateCache(final InstanceGenerator generator, final int maxEntries, final Parallelism parallelism) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries has to be positive");
+        }
+        this.generator = generator;
+        this.parallelism = parallelism;
+        this.version = generator.getVersion();
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AggregateQuery, GroupByResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the result of a query, computing it if it is not cached or the data
+     * changed since it was computed.
+     *
+     * @param query the query.
+     * @return the groups and their measures.
+     * @throws IllegalArgumentException if the dimensions have too many value
+     *                                  combinations to encode.
+     */
+    public GroupByResult get(AggregateQuery query) {
+        if (version != generator.getVersion()) {
+            results.clear();
+            version = generator.getVersion();
+        }
+        GroupByResult result = results.get(query);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        result = CustomerMapUtils.groupBy(generator.getFactTable(), query, parallelism);
+        results.put(query, result);
+        return result;
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return the cache size.
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Gets the number of queries answered from the cache.
+     *
+     * @return the hit count.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of queries that had to be computed.
+     *
+     * @return the miss count.
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
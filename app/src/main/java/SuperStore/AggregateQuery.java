@@ -0,0 +1,104 @@
+package SuperStore;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes a group-by query over a {@link FactTable}: the dimensions to
+ * group by, the measures to compute and the values some dimensions are
+ * restricted to. Queries are immutable and equal when they describe the same
+ * groups, so they can be used as cache keys.
+ *
+ * @param dimensions The dimensions to group by, most significant first.
+ * @param measures   The measures to compute per group.
+ * @param filters    The value every line item must have for each filtered
+ *                   dimension.
+ */
+public record AggregateQuery(List<Dimension> dimensions, Set<Measure> measures, Map<Dimension, String> filters) {
+    /**
+     * Constructs a new {@code AggregateQuery}, copying its arguments.
+     *
+     * @param dimensions The dimensions to group by, not null.
+     * @param measures   The measures to compute per group, not null.
+     * @param filters    The values of the filtered dimensions, not null.
+     */
+    public AggregateQuery {
+        dimensions = List.copyOf(dimensions);
+        measures = Set.copyOf(measures);
+        filters = Map.copyOf(filters);
+    }
+
+    /**
+     * Creates a query without filters.
+     *
+     * @param dimensions The dimensions to group by.
+     * @param measures   The measures to compute per group.
+     * @return the query.
+     */
+    public static AggregateQuery of(List<Dimension> dimensions, Set<Measure> measures) {
+        return new AggregateQuery(dimensions, measures, Map.of());
+    }
+
+    /**
+     * Gets a query that only keeps the line items with a value of a dimension,
+     * replacing an earlier filter on the same dimension.
+     *
+     * @param dimension The dimension to filter.
+     * @param value     The value line items must have, for example "West".
+     * @return the filtered query.
+     */
+    public AggregateQuery where(Dimension dimension, String value) {
+        EnumMap<Dimension, String> newFilters = new EnumMap<>(Dimension.class);
+        newFilters.putAll(filters);
+        newFilters.put(dimension, value);
+        return new AggregateQuery(dimensions, measures, newFilters);
+    }
+
+    /**
+     * Gets the query one level coarser in the hierarchy of a dimension, for
+     * example grouped by region instead of state. The top level of a
+     * hierarchy rolls up to no grouping by it at all.
+     *
+     * @param dimension The dimension to roll up, one of the dimensions.
+     * @return the rolled up query.
+     * @throws IllegalArgumentException if the query is not grouped by the
+     *                                  dimension.
+     */
+    public AggregateQuery rollUp(Dimension dimension) {
+        return replace(dimension, Hierarchy.parent(dimension));
+    }
+
+    /**
+     * Gets the query one level finer in the hierarchy of a dimension, for
+     * example grouped by city instead of state.
+     *
+     * @param dimension The dimension to drill into, one of the dimensions.
+     * @return the drilled down query.
+     * @throws IllegalArgumentException if the query is not grouped by the
+     *                                  dimension or it is the finest level.
+     */
+    public AggregateQuery drillDown(Dimension dimension) {
+        Dimension child = Hierarchy.child(dimension);
+        if (child == null) {
+            throw new IllegalArgumentException(dimension + " has no finer level");
+        }
+        return replace(dimension, child);
+    }
+
+    private AggregateQuery replace(Dimension dimension, Dimension replacement) {
+        int index = dimensions.indexOf(dimension);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not grouped by " + dimension);
+        }
+        List<Dimension> newDimensions = new ArrayList<>(dimensions);
+        if (replacement == null || dimensions.contains(replacement)) {
+            newDimensions.remove(index);
+        } else {
+            newDimensions.set(index, replacement);
+        }
+        return new AggregateQuery(newDimensions, measures, filters);
+    }
+}
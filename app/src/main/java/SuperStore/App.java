@@ -4,15 +4,17 @@
 package SuperStore;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import javafx.application.Application;
-import javafx.beans.property.ReadOnlyObjectWrapper;
-import javafx.beans.property.SimpleStringProperty;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.ObservableMap;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -38,6 +40,14 @@ import javafx.stage.FileChooser;
 
 public class App extends Application {
     private File lastKnownDirectory = null;
+    private OrderFileTailer tailer = null;
+    private InstanceGenerator generator = null;
+    private AggregateCache aggregates = null;
+    private LiveAggregates live = null;
+    private OlapCube cube = null;
+    // the generator version the cube was built at
+    private long cubeVersion;
+    private Runnable refreshCustomers = () -> { };
 
     public static void main(String[] args) throws IOException {
         // javaFx
@@ -62,6 +72,7 @@ public class App extends Application {
 
     @Override
     public void stop() throws Exception {
+        closeTailer();
         super.stop();
         System.out.println("Program is stopped");
     }
@@ -124,11 +135,12 @@ public class App extends Application {
         initButton.setOnAction(e -> {
             if (!filePathField.getText().isEmpty() && !rFilePathField.getText().isEmpty()) {
                 try {
-                    FileDataProcessor fdp = new FileDataProcessor(filePathField.getText());
-                    FileDataProcessor rfdp = new FileDataProcessor(rFilePathField.getText());
-                    InstanceGenerator ig = new InstanceGenerator(fdp.processFile());
-                    ig.initialization();
-                    ig.setReturnMap(rfdp.processFile());
+                    InstanceGenerator ig = loadData(filePathField.getText(), rFilePathField.getText());
+                    generator = ig;
+                    aggregates = new AggregateCache(ig);
+                    live = new LiveAggregates(ig);
+                    cube = OlapCube.build(ig.getFactTable());
+                    cubeVersion = ig.getVersion();
                     // table
                     HashMap<String, Customer> customerMap = ig.getCustomerMap();
                     showCustomerTable(root, primaryStage, customerMap);
@@ -146,6 +158,50 @@ public class App extends Application {
         root.setCenter(vbox);
     }
 
+    // files on disk are loaded from their snapshot or parsed on all cores,
+    // bundled resources are streamed
+    private InstanceGenerator loadData(String dataPath, String returnPath) throws IOException {
+        FileDataProcessor fdp = new FileDataProcessor(dataPath);
+        FileDataProcessor rfdp = new FileDataProcessor(returnPath);
+        InstanceGenerator ig = new InstanceGenerator();
+        Path dataFile = fdp.getFileSystemPath();
+        closeTailer();
+        if (dataFile != null) {
+            // the snapshot and the tailer both cover exactly the bytes parsed, a
+            // row still being appended is left to the tailer
+            OrderSnapshot.CsvKey key = OrderSnapshot.CsvKey.ofCompleteRows(dataFile);
+            long loadedSize = key.getSize();
+            OrderSnapshot snapshot = new OrderSnapshot(dataFile);
+            if (!snapshot.load(ig, key)) {
+                new ParallelCsvLoader(dataFile).load(ig, loadedSize);
+                try {
+                    snapshot.write(ig, key);
+                } catch (IOException e) {
+                    System.out.println("Could not write snapshot: " + e.getMessage());
+                }
+            }
+            startTailer(dataFile, ig, loadedSize);
+        } else {
+            ig.initialization(fdp);
+        }
+        ig.setReturnMap(rfdp);
+        return ig;
+    }
+
+    // rows appended to the data file are added on the FX thread
+    private void startTailer(Path dataFile, InstanceGenerator ig, long offset) throws IOException {
+        closeTailer();
+        tailer = new OrderFileTailer(dataFile, ig, offset, Platform::runLater, () -> refreshCustomers.run());
+        tailer.start();
+    }
+
+    private void closeTailer() throws IOException {
+        if (tailer != null) {
+            tailer.close();
+            tailer = null;
+        }
+    }
+
     // user file chooser (default selected)
     private void configureFileChooser(FileChooser fileChooser) {
         fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));
@@ -168,6 +224,8 @@ public class App extends Application {
             return row;
         });
         ObservableList<Customer> masterData = FXCollections.observableArrayList(customerMap.values());
+        customerTable.setItems(masterData);
+        refreshCustomers = () -> masterData.setAll(customerMap.values());
         Button statsButton = new Button("General");
         statsButton.setOnAction(e -> showStatistics(customerMap));
         Button customerButton = new Button("Customer");
@@ -221,7 +279,7 @@ public class App extends Application {
             row.setOnMouseClicked(event -> {
                 if (!row.isEmpty() && event.getClickCount() == 2) {
                     Order clickedOrder = row.getItem();
-                    showOrderProducts(clickedOrder, stage, customerMap);
+                    showOrderProducts(clickedOrder, stage);
                 }
             });
             return row;
@@ -255,11 +313,11 @@ public class App extends Application {
         stage.show();
     }
 
-    private void showOrderProducts(Order order, Stage parentStage, HashMap<String, Customer> customerMap) {
+    private void showOrderProducts(Order order, Stage parentStage) {
         TableView<Product> productTable = createProductTable(order.getProducts());
         // productTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
         Button productButton = new Button("Total Sales for Order");
-        productButton.setOnAction(e -> showTotalSalesPerOrder(customerMap, order));
+        productButton.setOnAction(e -> showTotalSalesPerOrder(order));
         VBox vbox = new VBox(5);
         vbox.getChildren().addAll(productButton, productTable);
         Stage stage = new Stage();
@@ -272,12 +330,9 @@ public class App extends Application {
 
     private TableView<Customer> createCustomerTable(HashMap<String, Customer> customerMap) {
         TableView<Customer> table = new TableView<>();
-        TableColumn<Customer, String> idColumn = new TableColumn<>("Customer ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("customerId"));
-        TableColumn<Customer, String> nameColumn = new TableColumn<>("Name");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("customerName"));
-        TableColumn<Customer, String> segmentColumn = new TableColumn<>("Segment");
-        segmentColumn.setCellValueFactory(new PropertyValueFactory<>("segment"));
+        TableColumn<Customer, String> idColumn = FxColumns.column("Customer ID", Customer::getCustomerId);
+        TableColumn<Customer, String> nameColumn = FxColumns.column("Name", Customer::getCustomerName);
+        TableColumn<Customer, String> segmentColumn = FxColumns.column("Segment", Customer::getSegment);
         table.getColumns().add(idColumn);
         table.getColumns().add(nameColumn);
         table.getColumns().add(segmentColumn);
@@ -286,18 +341,13 @@ public class App extends Application {
         return table;
     }
 
-    private TableView<Order> createOrderTable(ObservableMap<String, Order> observableMap) {
+    private TableView<Order> createOrderTable(Map<String, Order> orderMap) {
         TableView<Order> table = new TableView<>();
-        TableColumn<Order, String> idColumn = new TableColumn<>("Order ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("orderId"));
-        TableColumn<Order, String> orderDateColumn = new TableColumn<>("Order Date");
-        orderDateColumn.setCellValueFactory(new PropertyValueFactory<>("orderDate"));
-        TableColumn<Order, String> shipDateColumn = new TableColumn<>("Ship Date");
-        shipDateColumn.setCellValueFactory(new PropertyValueFactory<>("shipDate"));
-        TableColumn<Order, Boolean> isReturnColumn = new TableColumn<>("Is Return");
-        isReturnColumn.setCellValueFactory(new PropertyValueFactory<>("isReturn"));
-        TableColumn<Order, Address> addressColumn = new TableColumn<>("Address");
-        addressColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getAddress()));
+        TableColumn<Order, String> idColumn = FxColumns.column("Order ID", Order::getOrderId);
+        TableColumn<Order, String> orderDateColumn = FxColumns.dateColumn("Order Date", Order::getOrderLocalDate);
+        TableColumn<Order, String> shipDateColumn = FxColumns.dateColumn("Ship Date", Order::getShipLocalDate);
+        TableColumn<Order, Boolean> isReturnColumn = FxColumns.column("Is Return", Order::getIsReturn);
+        TableColumn<Order, Address> addressColumn = FxColumns.column("Address", Order::getAddress);
         addressColumn.setCellFactory(param -> new TableCell<Order, Address>() {
             private final Button detailButton = new Button("Detail");
 
@@ -318,7 +368,7 @@ public class App extends Application {
         table.getColumns().add(shipDateColumn);
         table.getColumns().add(isReturnColumn);
         table.getColumns().add(addressColumn);
-        ObservableList<Order> data = FXCollections.observableArrayList(observableMap.values());
+        ObservableList<Order> data = FXCollections.observableArrayList(orderMap.values());
         table.setItems(data);
         return table;
     }
@@ -331,27 +381,19 @@ public class App extends Application {
         alert.showAndWait();
     }
 
-    private TableView<Product> createProductTable(ObservableMap<String, Product> observableMap) {
+    private TableView<Product> createProductTable(Map<String, Product> productMap) {
         TableView<Product> table = new TableView<>();
-        TableColumn<Product, String> idColumn = new TableColumn<>("Product ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("productId"));
-        TableColumn<Product, String> nameColumn = new TableColumn<>("Product Name");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("productName"));
-        TableColumn<Product, Double> salesColumn = new TableColumn<>("Sales");
-        salesColumn.setCellValueFactory(new PropertyValueFactory<>("sales"));
-        TableColumn<Product, Double> profitColumn = new TableColumn<>("Profit");
-        profitColumn.setCellValueFactory(new PropertyValueFactory<>("profit"));
-        TableColumn<Product, Double> discountColumn = new TableColumn<>("Discount");
-        discountColumn.setCellValueFactory(new PropertyValueFactory<>("discount"));
-        TableColumn<Product, Double> quantityColumn = new TableColumn<>("Quantity");
-        quantityColumn.setCellValueFactory(new PropertyValueFactory<>("quantity"));
+        TableColumn<Product, String> idColumn = FxColumns.column("Product ID", Product::getProductId);
+        TableColumn<Product, String> nameColumn = FxColumns.column("Product Name", Product::getProductName);
+        TableColumn<Product, Double> salesColumn = FxColumns.column("Sales", Product::getSales);
+        TableColumn<Product, Double> profitColumn = FxColumns.column("Profit", Product::getProfit);
+        TableColumn<Product, Double> discountColumn = FxColumns.column("Discount", Product::getDiscount);
+        TableColumn<Product, Integer> quantityColumn = FxColumns.column("Quantity", Product::getQuantity);
         // add category
-        TableColumn<Product, String> categoryColumn = new TableColumn<>("Category");
-        categoryColumn.setCellValueFactory(
-                cellData -> new SimpleStringProperty(cellData.getValue().getCategory().category()));
-        TableColumn<Product, String> subCategoryColumn = new TableColumn<>("Sub-Category");
-        subCategoryColumn.setCellValueFactory(
-                cellData -> new SimpleStringProperty(cellData.getValue().getCategory().subCategory()));
+        TableColumn<Product, String> categoryColumn = FxColumns.column("Category",
+                p -> p.getCategory().category());
+        TableColumn<Product, String> subCategoryColumn = FxColumns.column("Sub-Category",
+                p -> p.getCategory().subCategory());
 
         table.getColumns().add(idColumn);
         table.getColumns().add(nameColumn);
@@ -361,7 +403,7 @@ public class App extends Application {
         table.getColumns().add(quantityColumn);
         table.getColumns().add(categoryColumn);
         table.getColumns().add(subCategoryColumn);
-        ObservableList<Product> data = FXCollections.observableArrayList(observableMap.values());
+        ObservableList<Product> data = FXCollections.observableArrayList(productMap.values());
         table.setItems(data);
         return table;
     }
@@ -373,19 +415,17 @@ public class App extends Application {
         VBox layout = new VBox(10);
         layout.setPadding(new javafx.geometry.Insets(10));
 
-        int totalCustomers = CustomerMapUtils.calculateCustomersNumber(customerMap);
-        int totalOrders = CustomerMapUtils.calculateOrdersNumber(customerMap);
-        int totalProducts = CustomerMapUtils.calculateProductsNumber(customerMap);
-        Customer bestCustomer = CustomerMapUtils.getBestCustomer(customerMap);
-        double totalSales = CustomerMapUtils.getTotalSales(customerMap);
-        double averageSales = CustomerMapUtils.getAverageSalesForAllOrders(customerMap);
+        // running totals, kept up to date while rows are tailed
+        Customer bestCustomer = customerMap.get(live.getBestCustomerId());
 
-        Label customerLabel = new Label("Total Customers: " + totalCustomers);
-        Label orderLabel = new Label("Total Orders: " + totalOrders);
-        Label productLabel = new Label("Total Products: " + totalProducts);
-        Label bestCustomerLabel = new Label("Best Customer: " + bestCustomer.getCustomerName());
-        Label salesLabel = new Label(String.format("Total Sales: $%.2f", totalSales));
-        Label averageSalesLabel = new Label(String.format("Average Sales (per Order): $%.2f", averageSales));
+        Label customerLabel = new Label("Total Customers: " + live.getCustomerCount());
+        Label orderLabel = new Label("Total Orders: " + live.getOrderCount());
+        Label productLabel = new Label("Total Products: " + live.getProductCount());
+        Label bestCustomerLabel = new Label("Best Customer: "
+                + (bestCustomer == null ? "" : bestCustomer.getCustomerName()));
+        Label salesLabel = new Label(String.format("Total Sales: $%.2f", live.getTotalSales()));
+        Label averageSalesLabel = new Label(String.format("Average Sales (per Order): $%.2f",
+                live.getAverageSalesPerOrder()));
 
         layout.getChildren().addAll(customerLabel, orderLabel, productLabel,
                 bestCustomerLabel, salesLabel, averageSalesLabel);
@@ -407,7 +447,7 @@ public class App extends Application {
         numberColumn.setCellValueFactory(cellData -> cellData.getValue().numberProperty());
         tableView.getColumns().add(stateColumn);
         tableView.getColumns().add(numberColumn);
-        HashMap<String, Integer> customersPerState = CustomerMapUtils.getAmountCustomerPerFilter(customerMap, "State");
+        HashMap<String, Integer> customersPerState = countsBy(Dimension.STATE, Measure.CUSTOMERS);
         ObservableList<propertyCustomerStat> tableData = FXCollections.observableArrayList();
         customersPerState.forEach((state, number) -> {
             tableData.add(new propertyCustomerStat(state, number));
@@ -431,7 +471,7 @@ public class App extends Application {
         numberColumn.setCellValueFactory(cellData -> cellData.getValue().numberProperty());
         tableView.getColumns().add(segmentColumn);
         tableView.getColumns().add(numberColumn);
-        HashMap<String, Integer> customersPerSegment = CustomerMapUtils.getAmountOfSegment(customerMap);
+        HashMap<String, Integer> customersPerSegment = countsBy(Dimension.SEGMENT, Measure.CUSTOMERS);
         ObservableList<propertyCustomerStat> tableData = FXCollections.observableArrayList();
         customersPerSegment.forEach((segment, number) -> {
             tableData.add(new propertyCustomerStat(segment, number));
@@ -466,7 +506,7 @@ public class App extends Application {
         });
         tableView.getColumns().add(yearColumn);
         tableView.getColumns().add(numberColumn);
-        HashMap<String, Double> salesPerYear = CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Year");
+        HashMap<String, Double> salesPerYear = salesBy(Dimension.YEAR);
         ObservableList<propertySalesStat> tableData = FXCollections.observableArrayList();
         salesPerYear.forEach((year, number) -> {
             tableData.add(new propertySalesStat(year, number));
@@ -501,7 +541,7 @@ public class App extends Application {
         });
         tableView.getColumns().add(regionColumn);
         tableView.getColumns().add(numberColumn);
-        HashMap<String, Double> salesPerRegion = CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Region");
+        HashMap<String, Double> salesPerRegion = salesBy(Dimension.REGION);
         ObservableList<propertySalesStat> tableData = FXCollections.observableArrayList();
         salesPerRegion.forEach((region, number) -> {
             tableData.add(new propertySalesStat(region, number));
@@ -513,6 +553,27 @@ public class App extends Application {
         statisticsStage.show();
     }
 
+    // levels of a hierarchy are rolled up from the cube, other statistics
+    // are answered from the cache until the data changes
+    private HashMap<String, Double> salesBy(Dimension dimension) {
+        AggregateQuery query = AggregateQuery.of(List.of(dimension), EnumSet.of(Measure.SALES));
+        GroupByResult result = Hierarchy.of(dimension) != null ? cube().query(query) : aggregates.get(query);
+        return result.toMap(Measure.SALES);
+    }
+
+    // rebuilt once rows were tailed or returns applied since it was built
+    private OlapCube cube() {
+        if (cube == null || cubeVersion != generator.getVersion()) {
+            cube = OlapCube.build(generator.getFactTable());
+            cubeVersion = generator.getVersion();
+        }
+        return cube;
+    }
+
+    private HashMap<String, Integer> countsBy(Dimension dimension, Measure measure) {
+        return aggregates.get(AggregateQuery.of(List.of(dimension), EnumSet.of(measure))).toCountMap(measure);
+    }
+
     public void showTotalSalesPerCustomer(HashMap<String, Customer> customerMap, Customer customer) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Statistics");
@@ -522,12 +583,12 @@ public class App extends Application {
         alert.showAndWait();
     }
 
-    public void showTotalSalesPerOrder(HashMap<String, Customer> customerMap, Order order) {
+    public void showTotalSalesPerOrder(Order order) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Statistics");
         alert.setHeaderText(null);
         alert.setContentText(
-                "Total sales for Order: " + CustomerMapUtils.getTotalSalesForOrder(customerMap, order.getOrderId()));
+                "Total sales for Order: " + CustomerMapUtils.getTotalSalesForOrder(generator, order.getOrderId()));
         alert.showAndWait();
     }
 
@@ -538,27 +599,26 @@ public class App extends Application {
             writer.newLine();
             
             writer.newLine();
-            writer.write("Total Sales: $" + CustomerMapUtils.getTotalSales(customerMap));
+            writer.write("Total Sales: $" + live.getTotalSales());
             writer.newLine();
 
             writer.newLine();
-            writer.write("Total Customers: $" + CustomerMapUtils.calculateCustomersNumber(customerMap));
+            writer.write("Total Customers: $" + live.getCustomerCount());
             writer.newLine();
 
             writer.newLine();
-            writer.write("Total Orders: $" + CustomerMapUtils.calculateOrdersNumber(customerMap));
+            writer.write("Total Orders: $" + live.getOrderCount());
             writer.newLine();
 
             writer.newLine();
-            writer.write("Total Products: $" + CustomerMapUtils.calculateProductsNumber(customerMap));
+            writer.write("Total Products: $" + live.getProductCount());
             writer.newLine();
 
             writer.newLine();
             writer.write("Customer Count per State:");
             writer.newLine();
 
-            HashMap<String, Integer> customersPerState = CustomerMapUtils.getAmountCustomerPerFilter(customerMap,
-                    "State");
+            HashMap<String, Integer> customersPerState = countsBy(Dimension.STATE, Measure.CUSTOMERS);
             for (String state : customersPerState.keySet()) {
                 writer.write(state + ": " + customersPerState.get(state));
                 writer.newLine();
@@ -568,7 +628,7 @@ public class App extends Application {
             writer.write("Customer Count per Segment:");
             writer.newLine();
 
-            HashMap<String, Integer> customersPerSegment = CustomerMapUtils.getAmountOfSegment(customerMap);
+            HashMap<String, Integer> customersPerSegment = countsBy(Dimension.SEGMENT, Measure.CUSTOMERS);
             for (String segment : customersPerSegment.keySet()) {
                 writer.write(segment + ": " + customersPerSegment.get(segment));
                 writer.newLine();
@@ -578,7 +638,7 @@ public class App extends Application {
             writer.write("Total Sales per Year:");
             writer.newLine();
 
-            HashMap<String, Double> salesPerYear = CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Year");
+            HashMap<String, Double> salesPerYear = salesBy(Dimension.YEAR);
             for (String year : salesPerYear.keySet()) {
                 writer.write(year + ": $" + String.format("%.2f", salesPerYear.get(year)));
                 writer.newLine();
@@ -588,7 +648,7 @@ public class App extends Application {
             writer.write("Total Sales per Region:");
             writer.newLine();
 
-            HashMap<String, Double> salesPerRegion = CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Region");
+            HashMap<String, Double> salesPerRegion = salesBy(Dimension.REGION);
             for (String region : salesPerRegion.keySet()) {
                 writer.write(region + ": $" + String.format("%.2f", salesPerRegion.get(region)));
                 writer.newLine();
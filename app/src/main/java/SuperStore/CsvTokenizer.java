@@ -0,0 +1,288 @@
+package SuperStore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Splits semicolon separated records of a byte buffer into fields.
+ * <p>
+ * The tokenizer only records the start and end offset of every field, a
+ * field is decoded into a string when {@link #get(int)} is called. One
+ * instance is reused for every record, so it is a view that is only valid
+ * until the next record is tokenized.
+ * <p>
+ * Quoting follows RFC 4180: a field enclosed in double quotes may contain
+ * the delimiter, line breaks and doubled quotes ({@code ""}) standing for one
+ * quote. Records end with {@code \n} or {@code \r\n}.
+ */
+public class CsvTokenizer implements DataRow {
+    private static final byte DELIMITER = ';';
+    private static final byte QUOTE = '"';
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int PLAIN = 0;
+    private static final int QUOTED = 1;
+    private static final int ESCAPED = 2;
+
+    private ByteBuffer buffer;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private int[] kinds = new int[32];
+    private int count;
+    private byte[] scratch = new byte[256];
+    private final FieldChars fieldChars = new FieldChars();
+
+    /**
+     * Gets the length of a UTF-8 byte order mark at the given position.
+     *
+     * @param buffer the buffer to check.
+     * @param start  the position to check.
+     * @return 3 if the buffer has a byte order mark at start, otherwise 0.
+     */
+    public static int byteOrderMarkLength(ByteBuffer buffer, int start) {
+        if (buffer.limit() - start >= 3 && buffer.get(start) == (byte) 0xEF
+                && buffer.get(start + 1) == (byte) 0xBB && buffer.get(start + 2) == (byte) 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+
+    /**
+     * Tokenizes every complete record between start and limit and hands each of
+     * them to the consumer. Blank lines are skipped.
+     *
+     * @param buffer      the buffer holding the records.
+     * @param start       the position of the first record.
+     * @param limit       the end of the readable bytes.
+     * @param endOfInput  whether limit is the end of the input, in which case a
+     *                    last record without a line break is complete.
+     * @param rowConsumer receives this tokenizer positioned on each record.
+     * @return the position right after the last complete record.
+     */
+    public int forEachRecord(ByteBuffer buffer, int start, int limit, boolean endOfInput,
+            Consumer<? super DataRow> rowConsumer) {
+        int pos = start;
+        int next;
+        while ((next = tokenize(buffer, pos, limit, endOfInput)) >= 0) {
+            if (!isBlank()) {
+                rowConsumer.accept(this);
+            }
+            pos = next;
+        }
+        return pos;
+    }
+
+    /**
+     * Tokenizes the record starting at the given position.
+     *
+     * @param buffer     the buffer holding the record.
+     * @param start      the position of the record.
+     * @param limit      the end of the readable bytes.
+     * @param endOfInput whether limit is the end of the input.
+     * @return the position right after the record, or -1 if there is no
+     *         complete record between start and limit.
+     */
+    public int tokenize(ByteBuffer buffer, int start, int limit, boolean endOfInput) {
+        this.buffer = buffer;
+        this.count = 0;
+        if (start >= limit) {
+            return -1;
+        }
+        int pos = start;
+        while (true) {
+            if (buffer.get(pos) == QUOTE) {
+                int contentStart = pos + 1;
+                int kind = QUOTED;
+                pos = contentStart;
+                while (true) {
+                    if (pos >= limit) {
+                        if (!endOfInput) {
+                            return -1;
+                        }
+                        // unterminated quote, the field runs to the end of the input
+                        addField(contentStart, limit, kind);
+                        return limit;
+                    }
+                    if (buffer.get(pos) == QUOTE) {
+                        if (pos + 1 < limit && buffer.get(pos + 1) == QUOTE) {
+                            kind = ESCAPED;
+                            pos += 2;
+                            continue;
+                        }
+                        if (pos + 1 >= limit && !endOfInput) {
+                            // the next byte decides whether this quote is escaped
+                            return -1;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                addField(contentStart, pos, kind);
+                pos++;
+                // anything between the closing quote and the delimiter is ignored
+                while (pos < limit && buffer.get(pos) != DELIMITER && buffer.get(pos) != NEW_LINE) {
+                    pos++;
+                }
+            } else {
+                int fieldStart = pos;
+                while (pos < limit && buffer.get(pos) != DELIMITER && buffer.get(pos) != NEW_LINE) {
+                    pos++;
+                }
+                int fieldEnd = pos;
+                if (fieldEnd > fieldStart && buffer.get(fieldEnd - 1) == CARRIAGE_RETURN
+                        && (pos >= limit || buffer.get(pos) == NEW_LINE)) {
+                    fieldEnd--;
+                }
+                addField(fieldStart, fieldEnd, PLAIN);
+            }
+            if (pos >= limit) {
+                return endOfInput ? limit : -1;
+            }
+            if (buffer.get(pos) == NEW_LINE) {
+                return pos + 1;
+            }
+            pos++;
+            if (pos >= limit) {
+                if (!endOfInput) {
+                    return -1;
+                }
+                // trailing delimiter at the end of the input
+                addField(pos, pos, PLAIN);
+                return limit;
+            }
+        }
+    }
+
+    private void addField(int start, int end, int kind) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            kinds = Arrays.copyOf(kinds, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        kinds[count] = kind;
+        count++;
+    }
+
+    private boolean isBlank() {
+        return count == 1 && kinds[0] == PLAIN && starts[0] == ends[0];
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the buffer position of the first byte of a field, quotes excluded.
+     *
+     * @param index the index of the field.
+     * @return the start offset.
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * Gets the buffer position right after the last byte of a field, quotes
+     * excluded.
+     *
+     * @param index the index of the field.
+     * @return the end offset.
+     */
+    public int end(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Gets the buffer the current record was tokenized from.
+     *
+     * @return the buffer.
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public String get(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        } else {
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(start, scratch, 0, length);
+            value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return kinds[index] == ESCAPED ? value.replace("\"\"", "\"") : value;
+    }
+
+    /**
+     * Gets the characters of a field without decoding it into a string. The
+     * view is reused, it is only valid until the next call or record. ASCII
+     * fields, such as numbers, dates and most names, map bytes one to one onto
+     * chars; other fields are decoded like {@link #get(int)}.
+     *
+     * @param index the index of the field.
+     * @return the field characters.
+     */
+    @Override
+    public CharSequence chars(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+        if (kinds[index] == ESCAPED) {
+            return get(index);
+        }
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return get(index);
+            }
+        }
+        fieldChars.start = start;
+        fieldChars.length = end - start;
+        return fieldChars;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+    }
+
+    private final class FieldChars implements CharSequence {
+        private int start;
+        private int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes, 0, length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,20 +1,17 @@
 package SuperStore;
 
 import java.util.HashMap;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableMap;
+import java.util.Map;
 
 /**
  * Represents a customer with their ID, name, segment, and a collection of
  * orders.
  */
 public class Customer {
-    private final SimpleStringProperty customerId = new SimpleStringProperty(this, "customerId");
-    private final SimpleStringProperty customerName = new SimpleStringProperty(this, "customerName");
-    private final SimpleStringProperty segment = new SimpleStringProperty(this, "segment");
-    private final ObservableMap<String, Order> ordersMap = FXCollections.observableHashMap();
+    private String customerId;
+    private String customerName;
+    private String segment;
+    private final HashMap<String, Order> ordersMap = new HashMap<>();
 
     /**
      * Constructs a Customer with the specified ID, name, and segment.
@@ -36,45 +33,32 @@ public class Customer {
 
     // Default constructor and other overloaded constructors as needed
 
-    // Property getters
-    public StringProperty customerIdProperty() {
-        return customerId;
-    }
-
-    public StringProperty customerNameProperty() {
-        return customerName;
-    }
-
-    public StringProperty segmentProperty() {
-        return segment;
-    }
-
     // Regular getters and setters
     public String getCustomerId() {
-        return customerId.get();
+        return customerId;
     }
 
     public void setCustomerId(String customerId) {
-        this.customerId.set(customerId);
+        this.customerId = customerId;
     }
 
     public String getCustomerName() {
-        return customerName.get();
+        return customerName;
     }
 
     public void setCustomerName(String customerName) {
-        this.customerName.set(customerName);
+        this.customerName = customerName;
     }
 
     public String getSegment() {
-        return segment.get();
+        return segment;
     }
 
     public void setSegment(String segment) {
-        this.segment.set(segment);
+        this.segment = segment;
     }
 
-    public ObservableMap<String, Order> getOrders() {
+    public Map<String, Order> getOrders() {
         return ordersMap;
     }
 
@@ -90,7 +74,7 @@ public class Customer {
     }
 
     public void setId(String string) {
-        this.customerId.set(string);
+        this.customerId = string;
     }
 
     // ToString, hashCode, equals as needed
@@ -1,7 +1,11 @@
 package SuperStore;
 
-import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import com.google.common.base.Function;
 
 /**
@@ -11,6 +15,7 @@ import com.google.common.base.Function;
  * of customers, orders, and products.
  */
 public class CustomerMapUtils {
+    private static final int NULL_CODE = -1;
 
     private CustomerMapUtils() {
         // Private constructor to prevent instantiation
@@ -72,6 +77,17 @@ public class CustomerMapUtils {
                 .findFirst().orElse(null);
     }
 
+    /**
+     * Retrieves an Order object by its ID through the order index.
+     *
+     * @param generator The generator holding the customers.
+     * @param orderId   The ID of the order to retrieve.
+     * @return The Order object associated with the given ID, or null if not found.
+     */
+    public static Order getOrderById(InstanceGenerator generator, String orderId) {
+        return generator.getOrder(orderId);
+    }
+
     /**
      * Retrieves a Product object by its ID, searching across all orders and
      * customers.
@@ -88,6 +104,19 @@ public class CustomerMapUtils {
                 .findFirst().orElse(null);
     }
 
+    /**
+     * Retrieves a Product object by its ID through the product index.
+     *
+     * @param generator The generator holding the customers.
+     * @param productId The ID of the product to retrieve.
+     * @return The first added Product object with the given ID, or null if not
+     *         found.
+     */
+    public static Product getProductById(InstanceGenerator generator, String productId) {
+        List<LineItem> lineItems = generator.getLineItems(productId);
+        return lineItems.isEmpty() ? null : lineItems.get(0).product();
+    }
+
     /**
      * Calculates the total sales amount across all orders and customers.
      *
@@ -100,6 +129,16 @@ public class CustomerMapUtils {
                 .mapToDouble(p -> p.getSales()).sum();
     }
 
+    /**
+     * Calculates the total sales amount with one scan of the sales column.
+     *
+     * @param facts The line items of all customers.
+     * @return The total sales amount.
+     */
+    public static double getTotalSales(FactTable facts) {
+        return facts.totalSales();
+    }
+
     /**
      * Calculates the total sales amount for specific order.
      *
@@ -114,6 +153,19 @@ public class CustomerMapUtils {
         return order.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum();
     }
 
+    /**
+     * Calculates the total sales amount for specific order, found through the
+     * order index.
+     *
+     * @param generator The generator holding the customers.
+     * @param orderId   The value of order ID
+     * @return The total sales amount for one order, 0 if the order is unknown.
+     */
+    public static double getTotalSalesForOrder(InstanceGenerator generator, String orderId) {
+        Order order = generator.getOrder(orderId);
+        return order == null ? 0 : order.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum();
+    }
+
     /**
      * Calculates the average sales amount for specific order.
      *
@@ -128,6 +180,22 @@ public class CustomerMapUtils {
         return order.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum() / order.getProducts().size();
     }
 
+    /**
+     * Calculates the average sales amount for specific order, found through the
+     * order index.
+     *
+     * @param generator The generator holding the customers.
+     * @param orderId   The value of order ID
+     * @return The average sales amount for one order, 0 if the order is unknown.
+     */
+    public static double getAverageSalesForOrder(InstanceGenerator generator, String orderId) {
+        Order order = generator.getOrder(orderId);
+        if (order == null) {
+            return 0;
+        }
+        return order.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum() / order.getProducts().size();
+    }
+
     /**
      * Calculates the average sales amount all orders.
      *
@@ -152,9 +220,80 @@ public class CustomerMapUtils {
      *         is empty.
      */
     public static Customer getBestCustomer(HashMap<String, Customer> customerMap) {
-        return customerMap.values().stream()
-                .max(Comparator.comparingDouble(c -> getTotalSalesForCustomer(customerMap, c.getCustomerId())))
-                .orElse(null);
+        List<Ranked<Customer>> best = getTopCustomers(customerMap, Measure.SALES, 1);
+        return best.isEmpty() ? null : best.get(0).item();
+    }
+
+    /**
+     * Ranks the customers with the highest sales, profit, quantity or number
+     * of orders. The totals of each customer are summed while visiting its
+     * orders once and streamed through a heap of k entries, so the customers
+     * are not sorted.
+     *
+     * @param customerMap The map of customer IDs to Customer objects.
+     * @param measure     SALES, PROFIT, QUANTITY or ORDERS.
+     * @param k           The number of customers to rank.
+     * @return The best k customers with their totals, best first; of equal
+     *         totals the customer first in the map ranks higher.
+     * @throws IllegalArgumentException if k is not positive or the measure
+     *                                  counts customers.
+     */
+    public static List<Ranked<Customer>> getTopCustomers(HashMap<String, Customer> customerMap, Measure measure,
+            int k) {
+        if (measure == Measure.CUSTOMERS || measure == Measure.APPROX_CUSTOMERS) {
+            throw new IllegalArgumentException("Customers cannot be ranked by " + measure);
+        }
+        TopK<Customer> top = new TopK<>(k);
+        OrderSales orderSales = new OrderSales();
+        new OrderScan() {
+            private double total;
+
+            @Override
+            void startCustomer(Customer customer) {
+                total = 0;
+            }
+
+            @Override
+            void visit(Order order) {
+                double sales = orderSales.of(order);
+                total += switch (measure) {
+                    case SALES -> sales;
+                    case PROFIT -> orderSales.profit;
+                    case QUANTITY -> orderSales.quantity;
+                    default -> 1;
+                };
+            }
+
+            @Override
+            void endCustomer(Customer customer) {
+                top.offer(customer, total);
+            }
+        }.scan(customerMap);
+        return top.drain();
+    }
+
+    /**
+     * Ranks the values of a dimension of a fact table with the highest
+     * measure, for example the 100 products or cities with the most sales.
+     * The measure of every value is computed in one group-by scan and the
+     * values are streamed through a heap of k entries instead of being
+     * sorted.
+     *
+     * @param facts     The line items of all customers.
+     * @param dimension The dimension to rank, such as PRODUCT, CITY,
+     *                  SUB_CATEGORY or CUSTOMER.
+     * @param measure   The measure to rank by.
+     * @param k         The number of values to rank.
+     * @return The best k values with their measure, best first.
+     * @throws IllegalArgumentException if k is not positive.
+     */
+    public static List<Ranked<String>> getTop(FactTable facts, Dimension dimension, Measure measure, int k) {
+        TopK<String> top = new TopK<>(k);
+        GroupByResult groups = groupBy(facts, List.of(dimension), EnumSet.of(measure));
+        for (int group = 0; group < groups.size(); group++) {
+            top.offer(groups.getValue(group, 0), groups.get(group, measure));
+        }
+        return top.drain();
     }
 
     /**
@@ -184,7 +323,8 @@ public class CustomerMapUtils {
      * The attribute can be country, region, state, city, or postal code. This
      * method
      * goes through all orders of all customers to count how many times each unique
-     * address attribute appears.
+     * address attribute appears, so a customer is counted once per order. For
+     * distinct customers group by the attribute with {@link Measure#CUSTOMERS}.
      *
      * @param customerMap   The map of customer IDs to Customer objects.
      * @param addressFilter The address attribute to count by (e.g., "Country",
@@ -194,81 +334,32 @@ public class CustomerMapUtils {
      */
     public static HashMap<String, Integer> getAmountCustomerPerFilter(HashMap<String, Customer> customerMap,
             String addressFilter) {
-        HashMap<String, Integer> customorsPerFilter = new HashMap<>();
         switch (addressFilter) {
             case "Country":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getAddress().getCountry();
-                        if (customorsPerFilter.containsKey(key)) {
-                            customorsPerFilter.put(key, customorsPerFilter.get(key) + 1);
-                        } else {
-                            customorsPerFilter.put(key, 1);
-                        }
-                    }
-                });
-                break;
+                return getAmountCustomerPerAttribute(customerMap, o -> o.getAddress().getCountry());
             case "Region":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getAddress().getRegion();
-                        if (customorsPerFilter.containsKey(key)) {
-                            customorsPerFilter.put(key, customorsPerFilter.get(key) + 1);
-                        } else {
-                            customorsPerFilter.put(key, 1);
-                        }
-                    }
-                });
-                break;
+                return getAmountCustomerPerAttribute(customerMap, o -> o.getAddress().getRegion());
             case "State":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getAddress().getState();
-                        if (customorsPerFilter.containsKey(key)) {
-                            customorsPerFilter.put(key, customorsPerFilter.get(key) + 1);
-                        } else {
-                            customorsPerFilter.put(key, 1);
-                        }
-                    }
-                });
-                break;
-            case "City":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getAddress().getCity();
-                        if (customorsPerFilter.containsKey(key)) {
-                            customorsPerFilter.put(key, customorsPerFilter.get(key) + 1);
-                        } else {
-                            customorsPerFilter.put(key, 1);
-                        }
-                    }
-                });
-                break;
+                return getAmountCustomerPerAttribute(customerMap, o -> o.getAddress().getState());
             case "PostalCode":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = "" + o.getAddress().getPostalCode();
-                        if (customorsPerFilter.containsKey(key)) {
-                            customorsPerFilter.put(key, customorsPerFilter.get(key) + 1);
-                        } else {
-                            customorsPerFilter.put(key, 1);
-                        }
-                    }
-                });
-                break;
+                return getAmountCustomerPerPostalCode(customerMap);
             default:
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getAddress().getCity();
-                        if (customorsPerFilter.containsKey(key)) {
-                            customorsPerFilter.put(key, customorsPerFilter.get(key) + 1);
-                        } else {
-                            customorsPerFilter.put(key, 1);
-                        }
-                    }
-                });
-                break;
+                return getAmountCustomerPerAttribute(customerMap, o -> o.getAddress().getCity());
         }
+    }
+
+    // counts by the numeric postal code, so no key string is built per order
+    private static HashMap<String, Integer> getAmountCustomerPerPostalCode(HashMap<String, Customer> customerMap) {
+        IntLongMap counts = new IntLongMap();
+        new OrderScan() {
+            @Override
+            void visit(Order order) {
+                counts.addTo(order.getAddress().getPostalCode(), 1);
+            }
+        }.scan(customerMap);
+        HashMap<String, Integer> customorsPerFilter = new HashMap<>();
+        counts.forEach((postalCode, count) -> customorsPerFilter.put(String.valueOf(postalCode),
+                Math.toIntExact(count)));
         return customorsPerFilter;
     }
 
@@ -296,16 +387,15 @@ public class CustomerMapUtils {
     // order.getAddress().getState());
     public static HashMap<String, Integer> getAmountCustomerPerAttribute(HashMap<String, Customer> customerMap,
             Function<Order, String> attributeExtractor) {
-        HashMap<String, Integer> customorsPerFilter = new HashMap<>();
-        customerMap.values().forEach(c -> {
-            for (Order o : c.getOrders().values()) {
-                // attribute extractor
-                String key = attributeExtractor.apply(o);
-                // map.merge
-                customorsPerFilter.merge(key, 1, Integer::sum);
+        StringDictionary keys = new StringDictionary();
+        IntLongMap counts = new IntLongMap();
+        new OrderScan() {
+            @Override
+            void visit(Order order) {
+                counts.addTo(code(keys, attributeExtractor.apply(order)), 1);
             }
-        });
-        return customorsPerFilter;
+        }.scan(customerMap);
+        return toCountMap(keys, counts);
     }
 
     /**
@@ -318,17 +408,10 @@ public class CustomerMapUtils {
      * @return A map of segments to their corresponding customer count.
      */
     public static HashMap<String, Integer> getAmountOfSegment(HashMap<String, Customer> customerMap) {
-        HashMap<String, Integer> segmentMap = new HashMap<>();
-        customerMap.values().forEach(c -> {
-            String segment = c.getSegment();
-            // if (segmentMap.containsKey(segment)) {
-            //     segmentMap.put(segment, segmentMap.get(segment) + 1);
-            // } else {
-            //     segmentMap.put(segment, 1);
-            // }
-            segmentMap.merge(segment, 1, Integer::sum);
-        });
-        return segmentMap;
+        StringDictionary segments = new StringDictionary();
+        IntLongMap counts = new IntLongMap();
+        customerMap.values().forEach(c -> counts.addTo(code(segments, c.getSegment()), 1));
+        return toCountMap(segments, counts);
     }
 
     /**
@@ -343,73 +426,341 @@ public class CustomerMapUtils {
      * @return A map of filter values to their corresponding total sales amount.
      */
     public static HashMap<String, Double> getTotalSalesPerFilter(HashMap<String, Customer> customerMap, String Filter) {
-        HashMap<String, Double> totalSalesPerFilterMap = new HashMap<>();
         switch (Filter) {
             case "Year":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getOrderDate().substring(0, 4);
-                        Double sales = o.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum();
-                        if (totalSalesPerFilterMap.containsKey(key)) {
-                            totalSalesPerFilterMap.put(key, totalSalesPerFilterMap.get(key) + sales);
-                        } else {
-                            totalSalesPerFilterMap.put(key, sales);
-                        }
-                    }
-                });
-                break;
+                return getTotalSalesPerPeriod(customerMap, false);
             case "Month":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getOrderDate().substring(0, 7);
-                        Double sales = o.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum();
-                        if (totalSalesPerFilterMap.containsKey(key)) {
-                            totalSalesPerFilterMap.put(key, totalSalesPerFilterMap.get(key) + sales);
-                        } else {
-                            totalSalesPerFilterMap.put(key, sales);
-                        }
-                    }
-                });
-                break;
-            case "Region":
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getAddress().getRegion();
-                        Double sales = o.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum();
-                        if (totalSalesPerFilterMap.containsKey(key)) {
-                            totalSalesPerFilterMap.put(key, totalSalesPerFilterMap.get(key) + sales);
-                        } else {
-                            totalSalesPerFilterMap.put(key, sales);
-                        }
-                    }
-                });
-                break;
+                return getTotalSalesPerPeriod(customerMap, true);
             default:
-                customerMap.values().forEach(c -> {
-                    for (Order o : c.getOrders().values()) {
-                        String key = o.getAddress().getRegion();
-                        Double sales = o.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum();
-                        if (totalSalesPerFilterMap.containsKey(key)) {
-                            totalSalesPerFilterMap.put(key, totalSalesPerFilterMap.get(key) + sales);
-                        } else {
-                            totalSalesPerFilterMap.put(key, sales);
-                        }
-                    }
-                });
-                break;
+                return getTotalSalesPerAttribute(customerMap, o -> o.getAddress().getRegion());
         }
-        return totalSalesPerFilterMap;
     }
-    
+
+    /**
+     * Calculates the total sales per value of one dimension by scanning the
+     * columns of the fact table. Keys are the same as for
+     * {@link #getTotalSalesPerFilter(HashMap, String)}.
+     *
+     * @param facts  The line items of all customers.
+     * @param Filter The label of the dimension to aggregate sales by, such as
+     *               "Year", "Month" or "State"; unknown labels group by region.
+     * @return A map of filter values to their corresponding total sales amount.
+     */
+    public static HashMap<String, Double> getTotalSalesPerFilter(FactTable facts, String Filter) {
+        Dimension dimension = Dimension.fromLabel(Filter);
+        return groupBy(facts, List.of(dimension == null ? Dimension.REGION : dimension), EnumSet.of(Measure.SALES))
+                .toMap(Measure.SALES);
+    }
+
+    /**
+     * Counts the orders per value of one dimension by scanning the columns of
+     * the fact table, like {@link #getAmountCustomerPerFilter(HashMap, String)}.
+     *
+     * @param facts         The line items of all customers.
+     * @param addressFilter The label of the dimension to count by, such as
+     *                      "State"; unknown labels count by city.
+     * @return A map of dimension values to their order count.
+     */
+    public static HashMap<String, Integer> getAmountCustomerPerFilter(FactTable facts, String addressFilter) {
+        Dimension dimension = Dimension.fromLabel(addressFilter);
+        return groupBy(facts, List.of(dimension == null ? Dimension.CITY : dimension), EnumSet.of(Measure.ORDERS))
+                .toCountMap(Measure.ORDERS);
+    }
+
+    /**
+     * Groups the line items of a fact table by any combination of dimensions,
+     * for example state, year and category, and computes the requested
+     * measures of every group in one scan. Groups are found through a
+     * compiled {@link GroupKeyEncoder}, no key strings are built per row.
+     * Line items without an order date are left out when grouping by a time
+     * dimension.
+     *
+     * @param facts      The line items of all customers.
+     * @param dimensions The dimensions to group by, may be empty for a grand
+     *                   total.
+     * @param measures   The measures to compute per group.
+     * @return The groups and their measures.
+     * @throws IllegalArgumentException if the dimensions have too many value
+     *                                  combinations to encode.
+     */
+    public static GroupByResult groupBy(FactTable facts, List<Dimension> dimensions, Set<Measure> measures) {
+        return groupBy(facts, dimensions, measures, Parallelism.common());
+    }
+
+    /**
+     * Groups the line items of a fact table like
+     * {@link #groupBy(FactTable, List, Set)}, splitting large tables into row
+     * ranges that are grouped on several threads and merged in row order.
+     *
+     * @param facts       The line items of all customers.
+     * @param dimensions  The dimensions to group by, may be empty for a grand
+     *                    total.
+     * @param measures    The measures to compute per group.
+     * @param parallelism The threads to use and the rows grouped by one task.
+     * @return The groups and their measures.
+     * @throws IllegalArgumentException if the dimensions have too many value
+     *                                  combinations to encode.
+     */
+    public static GroupByResult groupBy(FactTable facts, List<Dimension> dimensions, Set<Measure> measures,
+            Parallelism parallelism) {
+        return groupBy(facts, AggregateQuery.of(dimensions, measures), parallelism);
+    }
+
+    /**
+     * Runs a group-by query with filters over the line items of a fact table.
+     * Only line items with the filtered values are grouped, for example the
+     * sales per state of the "West" region.
+     *
+     * @param facts       The line items of all customers.
+     * @param query       The dimensions, measures and filters of the query.
+     * @param parallelism The threads to use and the rows grouped by one task.
+     * @return The groups and their measures.
+     * @throws IllegalArgumentException if the dimensions have too many value
+     *                                  combinations to encode.
+     */
+    public static GroupByResult groupBy(FactTable facts, AggregateQuery query, Parallelism parallelism) {
+        return GroupBy.run(facts, query, parallelism);
+    }
+
+    /**
+     * Sums the sales per year or per month of the order date. Orders are
+     * grouped by integer year and month computed from their epoch day, a key
+     * is formatted only once per group, as "2016" or "2016/11".
+     *
+     * @param customerMap The map of customer IDs to Customer objects.
+     * @param monthly     Whether to group by month instead of year.
+     * @return A map of years or months to their total sales amount.
+     */
+    private static HashMap<String, Double> getTotalSalesPerPeriod(HashMap<String, Customer> customerMap,
+            boolean monthly) {
+        IntDoubleMap salesPerPeriod = new IntDoubleMap();
+        OrderSales orderSales = new OrderSales();
+        new OrderScan() {
+            @Override
+            void visit(Order order) {
+                if (order.getOrderEpochDay() != DateDecoder.NO_DATE) {
+                    int yearMonth = DateDecoder.yearMonth(order.getOrderEpochDay());
+                    salesPerPeriod.addTo(monthly ? yearMonth : yearMonth / 100, orderSales.of(order));
+                }
+            }
+        }.scan(customerMap);
+        HashMap<String, Double> totalSalesPerPeriodMap = new HashMap<>();
+        salesPerPeriod.forEach((period, sales) -> totalSalesPerPeriodMap.put(formatPeriod(period, monthly), sales));
+        return totalSalesPerPeriodMap;
+    }
+
+    // "2016" for a year, "2016/11" for a month given as year * 100 + month
+    private static String formatPeriod(int period, boolean monthly) {
+        return monthly ? String.format("%d/%02d", period / 100, period % 100) : String.valueOf(period);
+    }
+
+    /**
+     * Sums the sales of the orders per value of an order attribute. Values
+     * are mapped to dictionary codes and summed in an {@link IntDoubleMap},
+     * so apart from the result the scan allocates nothing.
+     *
+     * @param customerMap        The map of customer IDs to Customer objects.
+     * @param attributeExtractor A function that extracts the desired attribute
+     *                           from an Order object.
+     * @return A map of attribute values to their total sales amount.
+     */
     public static HashMap<String, Double> getTotalSalesPerAttribute(HashMap<String, Customer> customerMap, Function<Order,String> attributeExtractor) {
-        HashMap<String, Double> totalSalesPerAttributeMap = new HashMap<>();
-        customerMap.values().forEach(c -> {
-            for(Order o : c.getOrders().values()) {
-                String key = attributeExtractor.apply(o);
-                Double sales = o.getProducts().values().stream().mapToDouble(p -> p.getSales()).sum();
-                totalSalesPerAttributeMap.merge(key, sales, Double::sum);
+        StringDictionary keys = new StringDictionary();
+        IntDoubleMap totals = new IntDoubleMap();
+        OrderSales orderSales = new OrderSales();
+        new OrderScan() {
+            @Override
+            void visit(Order order) {
+                totals.addTo(code(keys, attributeExtractor.apply(order)), orderSales.of(order));
             }
-        });
+        }.scan(customerMap);
+        HashMap<String, Double> totalSalesPerAttributeMap = new HashMap<>();
+        totals.forEach((code, sales) -> totalSalesPerAttributeMap.put(decode(keys, code), sales));
         return totalSalesPerAttributeMap;
     }
+
+    // code of an attribute value, null gets a code of its own
+    private static int code(StringDictionary keys, String value) {
+        return value == null ? NULL_CODE : keys.encode(value);
+    }
+
+    private static String decode(StringDictionary keys, int code) {
+        return code == NULL_CODE ? null : keys.decode(code);
+    }
+
+    private static HashMap<String, Integer> toCountMap(StringDictionary keys, IntLongMap counts) {
+        HashMap<String, Integer> countMap = new HashMap<>();
+        counts.forEach((code, count) -> countMap.put(decode(keys, code), Math.toIntExact(count)));
+        return countMap;
+    }
+
+    /**
+     * Computes a set of metrics in one pass over the customers. Only as much
+     * of the data is visited as the metrics need: the number of customers
+     * needs no traversal, the number of orders only the customers, and every
+     * other metric one visit of each product line.
+     *
+     * @param customerMap The map of customer IDs to Customer objects.
+     * @param metrics     The metrics to compute.
+     * @return The values of the requested metrics.
+     */
+    public static MetricSummary aggregate(HashMap<String, Customer> customerMap, Set<Metric> metrics) {
+        return aggregate(customerMap, metrics, Parallelism.common());
+    }
+
+    /**
+     * Computes a set of metrics like {@link #aggregate(HashMap, Set)}, visiting
+     * the product lines of large customer maps on several threads. Every
+     * thread sums a partition of the customers, and the partitions are merged
+     * in map order, so the best customer is the first one with the highest
+     * sales like in a sequential scan.
+     *
+     * @param customerMap The map of customer IDs to Customer objects.
+     * @param metrics     The metrics to compute.
+     * @param parallelism The threads to use and the partition size.
+     * @return The values of the requested metrics.
+     */
+    public static MetricSummary aggregate(HashMap<String, Customer> customerMap, Set<Metric> metrics,
+            Parallelism parallelism) {
+        MetricSummary summary = new MetricSummary(metrics);
+        int depth = 0;
+        for (Metric metric : metrics) {
+            depth = Math.max(depth, metric.depth);
+        }
+        long orders = 0;
+        if (depth == 1) {
+            long[] count = new long[1];
+            customerMap.values().forEach(c -> count[0] += c.getOrders().size());
+            orders = count[0];
+        } else if (depth == 2) {
+            Customer[] customers = customerMap.values().toArray(new Customer[0]);
+            Totals totals = parallelism.reduce(customers.length, (from, to) -> {
+                Totals part = new Totals();
+                for (int i = from; i < to; i++) {
+                    part.accept(customers[i]);
+                }
+                return part;
+            }, Totals::merge);
+            orders = totals.orders;
+            summary.set(Metric.PRODUCTS, totals.products);
+            summary.set(Metric.TOTAL_SALES, totals.sales);
+            summary.set(Metric.AVERAGE_SALES_PER_ORDER, orders == 0 ? 0 : totals.sales / orders);
+            summary.set(Metric.TOTAL_QUANTITY, totals.quantity);
+            summary.set(Metric.TOTAL_PROFIT, totals.profit);
+            summary.setBestCustomer(totals.bestCustomer);
+        }
+        summary.set(Metric.CUSTOMERS, customerMap.size());
+        summary.set(Metric.ORDERS, orders);
+        return summary;
+    }
+
+    /**
+     * Sums the product lines of a partition of the customers and tracks the
+     * customer with the highest sales.
+     */
+    private static final class Totals extends OrderScan {
+        private final OrderSales orderSales = new OrderSales();
+        private long orders;
+        private long products;
+        private double sales;
+        private long quantity;
+        private double profit;
+        private double customerSales;
+        private double bestSales;
+        private Customer bestCustomer;
+
+        @Override
+        void startCustomer(Customer customer) {
+            customerSales = 0;
+        }
+
+        @Override
+        void visit(Order order) {
+            orders++;
+            products += order.getProducts().size();
+            customerSales += orderSales.of(order);
+            quantity += orderSales.quantity;
+            profit += orderSales.profit;
+        }
+
+        @Override
+        void endCustomer(Customer customer) {
+            sales += customerSales;
+            if (bestCustomer == null || customerSales > bestSales) {
+                bestCustomer = customer;
+                bestSales = customerSales;
+            }
+        }
+
+        // the other partition follows this one, ties keep this best customer
+        Totals merge(Totals other) {
+            orders += other.orders;
+            products += other.products;
+            sales += other.sales;
+            quantity += other.quantity;
+            profit += other.profit;
+            if (bestCustomer == null || other.bestCustomer != null && other.bestSales > bestSales) {
+                bestCustomer = other.bestCustomer;
+                bestSales = other.bestSales;
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Visits every order of every customer. The scan hands itself to the
+     * forEach methods of the maps, so unlike for loops and capturing lambdas
+     * it creates no iterator or lambda per customer.
+     */
+    private abstract static class OrderScan implements Consumer<Customer>, BiConsumer<String, Order> {
+
+        final void scan(HashMap<String, Customer> customerMap) {
+            customerMap.values().forEach(this);
+        }
+
+        @Override
+        public final void accept(Customer customer) {
+            startCustomer(customer);
+            customer.getOrders().forEach(this);
+            endCustomer(customer);
+        }
+
+        @Override
+        public final void accept(String orderId, Order order) {
+            visit(order);
+        }
+
+        void startCustomer(Customer customer) {
+        }
+
+        abstract void visit(Order order);
+
+        void endCustomer(Customer customer) {
+        }
+    }
+
+    /**
+     * Sums the product lines of an order without allocating.
+     */
+    private static final class OrderSales implements Consumer<Product> {
+        private double sales;
+        private long quantity;
+        private double profit;
+
+        // returns the sales, quantity and profit are read from the fields
+        double of(Order order) {
+            sales = 0;
+            quantity = 0;
+            profit = 0;
+            order.getProducts().values().forEach(this);
+            return sales;
+        }
+
+        @Override
+        public void accept(Product product) {
+            sales += product.getSales();
+            quantity += product.getQuantity();
+            profit += product.getProfit();
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package SuperStore;
+
+/**
+ * Read access to the fields of one data record.
+ * Implementations may be views over a shared buffer, in which case a row is
+ * only valid until the next record is read and fields are only turned into
+ * strings when they are requested.
+ */
+public interface DataRow {
+
+    /**
+     * Gets the number of fields in the record.
+     *
+     * @return the field count.
+     */
+    int size();
+
+    /**
+     * Gets the value of a field.
+     *
+     * @param index the index of the field.
+     * @return the field value.
+     * @throws ArrayIndexOutOfBoundsException if the record has no such field.
+     */
+    String get(int index);
+
+    /**
+     * Gets the characters of a field. Unlike {@link #get(int)} the result may be
+     * a view that is only valid until the next call.
+     *
+     * @param index the index of the field.
+     * @return the field characters.
+     * @throws ArrayIndexOutOfBoundsException if the record has no such field.
+     */
+    default CharSequence chars(int index) {
+        return get(index);
+    }
+
+    /**
+     * Parses a field holding a decimal number with a comma or point separator.
+     *
+     * @param index the index of the field.
+     * @return the value, or {@link Double#NaN} if the field is not a number.
+     * @throws ArrayIndexOutOfBoundsException if the record has no such field.
+     */
+    default double getDouble(int index) {
+        return DecimalParser.parseDouble(chars(index));
+    }
+
+    /**
+     * Parses a field holding an integer.
+     *
+     * @param index the index of the field.
+     * @return the value, or {@link DecimalParser#INVALID_INT} if the field is
+     *         not an int.
+     * @throws ArrayIndexOutOfBoundsException if the record has no such field.
+     */
+    default int getInt(int index) {
+        return DecimalParser.parseInt(chars(index));
+    }
+
+    /**
+     * Copies every field of the record into a new array.
+     *
+     * @return the field values.
+     */
+    default String[] toArray() {
+        String[] fields = new String[size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = get(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Wraps an already split record.
+     *
+     * @param fields the field values.
+     * @return a row backed by the given array.
+     */
+    static DataRow of(final String[] fields) {
+        return new DataRow() {
+            @Override
+            public int size() {
+                return fields.length;
+            }
+
+            @Override
+            public String get(int index) {
+                return fields[index];
+            }
+
+            @Override
+            public String[] toArray() {
+                return fields;
+            }
+        };
+    }
+}
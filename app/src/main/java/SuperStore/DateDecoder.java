@@ -0,0 +1,184 @@
+package SuperStore;
+
+/**
+ * Decodes {@code d.M.yyyy} dates, the format of the Order Date and Ship Date
+ * columns, into epoch days.
+ * <p>
+ * An orders file holds only a few distinct dates, each repeated on many rows,
+ * so a decoder remembers recently decoded dates in a small direct mapped
+ * cache keyed by the packed characters of the date. Decoding does not create
+ * any objects. One decoder must not be shared between threads.
+ */
+public class DateDecoder {
+    /** Epoch day used for a missing or malformed date. */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int CACHE_BITS = 7;
+    // dates with more characters than fit into a key are not cached
+    private static final int MAX_KEY_LENGTH = 14;
+    private static final int DAYS_0000_TO_1970 = 719528;
+    private static final int DAYS_0000_TO_1970_MARCH_BASED = 719468;
+
+    private final long[] keys = new long[1 << CACHE_BITS];
+    private final int[] values = new int[1 << CACHE_BITS];
+
+    /**
+     * Decodes a date.
+     *
+     * @param text the date, for example {@code 8.11.2016}.
+     * @return the epoch day, or {@link #NO_DATE} if text is not a valid date.
+     */
+    public int decode(CharSequence text) {
+        long key = pack(text);
+        if (key == 0) {
+            return parse(text);
+        }
+        int slot = (int) ((key ^ (key >>> 32)) * 0x9E3779B97F4A7C15L >>> (64 - CACHE_BITS));
+        if (keys[slot] == key) {
+            return values[slot];
+        }
+        int epochDay = parse(text);
+        if (epochDay != NO_DATE) {
+            keys[slot] = key;
+            values[slot] = epochDay;
+        }
+        return epochDay;
+    }
+
+    // four bits per character plus the length, 0 if the text cannot be packed
+    private static long pack(CharSequence text) {
+        int length = text.length();
+        if (length == 0 || length > MAX_KEY_LENGTH) {
+            return 0;
+        }
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            int nibble;
+            if (c >= '0' && c <= '9') {
+                nibble = c - '0';
+            } else if (c == '.') {
+                nibble = 10;
+            } else {
+                return 0;
+            }
+            key = (key << 4) | nibble;
+        }
+        return key;
+    }
+
+    private static int parse(CharSequence text) {
+        int length = text.length();
+        int pos = 0;
+        int day = 0;
+        int month = 0;
+        int year = 0;
+        int start = pos;
+        while (pos < length && pos - start < 2 && isDigit(text.charAt(pos))) {
+            day = day * 10 + text.charAt(pos++) - '0';
+        }
+        if (pos == start || pos >= length || text.charAt(pos++) != '.') {
+            return NO_DATE;
+        }
+        start = pos;
+        while (pos < length && pos - start < 2 && isDigit(text.charAt(pos))) {
+            month = month * 10 + text.charAt(pos++) - '0';
+        }
+        if (pos == start || pos >= length || text.charAt(pos++) != '.') {
+            return NO_DATE;
+        }
+        if (length - pos != 4) {
+            return NO_DATE;
+        }
+        for (; pos < length; pos++) {
+            char c = text.charAt(pos);
+            if (!isDigit(c)) {
+                return NO_DATE;
+            }
+            year = year * 10 + c - '0';
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return NO_DATE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Computes the epoch day of a date, like {@link java.time.LocalDate#toEpochDay()}.
+     *
+     * @param year  the year, not negative.
+     * @param month the month, from 1 to 12.
+     * @param day   the day of the month.
+     * @return the epoch day.
+     */
+    public static int epochDay(int year, int month, int day) {
+        int total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12 + day - 1;
+        if (month > 2) {
+            total -= isLeapYear(year) ? 1 : 2;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Gets the year of an epoch day.
+     *
+     * @param epochDay the epoch day.
+     * @return the year.
+     */
+    public static int year(int epochDay) {
+        return yearMonth(epochDay) / 100;
+    }
+
+    /**
+     * Gets the month of an epoch day.
+     *
+     * @param epochDay the epoch day.
+     * @return the month, from 1 to 12.
+     */
+    public static int month(int epochDay) {
+        return yearMonth(epochDay) % 100;
+    }
+
+    /**
+     * Gets the year and month of an epoch day as one number, {@code year * 100 + month}.
+     * Sorting these numbers sorts the months chronologically.
+     *
+     * @param epochDay the epoch day, not before year 0.
+     * @return the year and month, for example 201611.
+     */
+    public static int yearMonth(int epochDay) {
+        // days since 1 March of year 0, years start in March so leap days come last
+        int days = epochDay + DAYS_0000_TO_1970_MARCH_BASED;
+        int era = days / 146097;
+        int dayOfEra = days - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int marchBasedMonth = (5 * dayOfYear + 2) / 153;
+        int month = marchBasedMonth < 10 ? marchBasedMonth + 3 : marchBasedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 100 + month;
+    }
+}
@@ -0,0 +1,186 @@
+package SuperStore;
+
+/**
+ * Parses numbers written with a comma or a point as decimal separator, such as
+ * the Sales, Discount and Profit columns ({@code 261,96}, {@code -3,8}).
+ * <p>
+ * The digits are read straight from the characters of a field, no intermediate
+ * strings are created. Malformed input does not throw, it is reported with a
+ * sentinel value instead: {@link Double#NaN}, {@link #INVALID_INT} or
+ * {@link #INVALID_FIXED}.
+ */
+public class DecimalParser {
+    /** Returned by {@link #parseInt(CharSequence)} for malformed input. */
+    public static final int INVALID_INT = Integer.MIN_VALUE;
+    /** Returned by {@link #parseFixed(CharSequence, int)} for malformed input. */
+    public static final long INVALID_FIXED = Long.MIN_VALUE;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long[] LONG_POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+    // largest mantissa a double holds exactly
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private DecimalParser() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Parses a decimal number.
+     *
+     * @param text the characters of the number, for example {@code 41,9136}.
+     * @return the value, or {@link Double#NaN} if text is not a number.
+     */
+    public static double parseDouble(CharSequence text) {
+        int length = text.length();
+        int pos = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int fractionDigits = 0;
+        int digits = 0;
+        boolean separator = false;
+        for (; pos < length; pos++) {
+            char c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    // too many digits to be exact, rare enough for the slow path
+                    return parseSlow(text);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (separator) {
+                    fractionDigits++;
+                }
+            } else if ((c == ',' || c == '.') && !separator) {
+                separator = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return digits == 0 ? Double.NaN : parseSlow(text);
+        }
+        // mantissa and power are exact, so the division is correctly rounded
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a decimal number into a fixed-point value with the given number of
+     * decimals, rounding half away from zero. For example {@code 261,96} with
+     * scale 2 becomes 26196.
+     *
+     * @param text  the characters of the number.
+     * @param scale the number of decimals kept, between 0 and 9.
+     * @return the fixed-point value, or {@link #INVALID_FIXED} if text is not a
+     *         number or does not fit into a long.
+     * @throws IllegalArgumentException if scale is out of range.
+     */
+    public static long parseFixed(CharSequence text, int scale) {
+        if (scale < 0 || scale >= LONG_POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("scale has to be between 0 and 9");
+        }
+        int length = text.length();
+        int pos = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            pos++;
+        }
+        long value = 0;
+        int fractionDigits = 0;
+        int digits = 0;
+        boolean separator = false;
+        boolean roundUp = false;
+        for (; pos < length; pos++) {
+            char c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (separator && fractionDigits == scale) {
+                    // first dropped digit decides the rounding
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                    continue;
+                } else if (separator && fractionDigits > scale) {
+                    continue;
+                }
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    return INVALID_FIXED;
+                }
+                value = value * 10 + (c - '0');
+                if (separator) {
+                    fractionDigits++;
+                }
+            } else if ((c == ',' || c == '.') && !separator) {
+                separator = true;
+            } else {
+                return INVALID_FIXED;
+            }
+        }
+        if (digits == 0) {
+            return INVALID_FIXED;
+        }
+        int missing = scale - Math.min(fractionDigits, scale);
+        if (value > Long.MAX_VALUE / LONG_POWERS_OF_TEN[missing]) {
+            return INVALID_FIXED;
+        }
+        value = value * LONG_POWERS_OF_TEN[missing] + (roundUp ? 1 : 0);
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses an integer.
+     *
+     * @param text the characters of the number.
+     * @return the value, or {@link #INVALID_INT} if text is not an int.
+     */
+    public static int parseInt(CharSequence text) {
+        int length = text.length();
+        int pos = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            pos++;
+        }
+        if (pos == length) {
+            return INVALID_INT;
+        }
+        long value = 0;
+        for (; pos < length; pos++) {
+            char c = text.charAt(pos);
+            if (c < '0' || c > '9') {
+                return INVALID_INT;
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                return INVALID_INT;
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private static double parseSlow(CharSequence text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c < '0' || c > '9') && c != ',' && c != '.' && !(i == 0 && (c == '-' || c == '+'))) {
+                // Double.parseDouble would accept exponents, "Infinity" or a type suffix
+                return Double.NaN;
+            }
+            normalized.append(c == ',' ? '.' : c);
+        }
+        try {
+            return Double.parseDouble(normalized.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
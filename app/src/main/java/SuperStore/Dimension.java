@@ -0,0 +1,62 @@
+package SuperStore;
+
+/**
+ * The dictionary coded attributes of a line item in a {@link FactTable}.
+ * YEAR, QUARTER and MONTH are derived from the order date; a line without
+ * an order date has no value for them.
+ */
+public enum Dimension {
+    CUSTOMER("Customer"),
+    SEGMENT("Segment"),
+    ORDER("Order"),
+    SHIP_MODE("Ship Mode"),
+    COUNTRY("Country"),
+    REGION("Region"),
+    STATE("State"),
+    CITY("City"),
+    PRODUCT("Product"),
+    CATEGORY("Category"),
+    SUB_CATEGORY("Sub-Category"),
+    YEAR("Year"),
+    QUARTER("Quarter"),
+    MONTH("Month");
+
+    private final String label;
+
+    Dimension(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the display name of the dimension, as used for filter names.
+     *
+     * @return the label, for example "Sub-Category".
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Checks whether the dimension is derived from the order date.
+     *
+     * @return true for YEAR, QUARTER and MONTH.
+     */
+    public boolean isTime() {
+        return this == YEAR || this == QUARTER || this == MONTH;
+    }
+
+    /**
+     * Finds a dimension by its label, ignoring case.
+     *
+     * @param label the label, for example "State" or "ship mode".
+     * @return the dimension, or null if no dimension has the label.
+     */
+    public static Dimension fromLabel(String label) {
+        for (Dimension dimension : values()) {
+            if (dimension.label.equalsIgnoreCase(label)) {
+                return dimension;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the columns of a {@link FactTable} outside the heap.
+ * <p>
+ * Rows are kept in blocks of {@value #BLOCK_ROWS}. Each block is one buffer
+ * holding every column of its rows one after another, allocated with
+ * {@link ByteBuffer#allocateDirect(int)} or mapped from a file. Growing adds
+ * a block and never copies rows, and the heap only holds the block list.
+ */
+class DirectFactColumns implements FactColumns {
+    static final int BLOCK_ROWS = 1 << 16;
+    private static final int BLOCK_SHIFT = 16;
+    private static final int ROW_MASK = BLOCK_ROWS - 1;
+
+    private final int doubleColumns;
+    private final int blockBytes;
+    private final FileChannel channel;
+    private final List<ByteBuffer> blocks = new ArrayList<>();
+
+    /**
+     * Constructs the columns in memory allocated outside the heap, or mapped
+     * from a file.
+     *
+     * @param doubleColumns the number of double columns.
+     * @param intColumns    the number of int columns.
+     * @param channel       the file to map blocks from, or null for direct
+     *                      buffers. The channel is closed with the columns.
+     */
+    DirectFactColumns(int doubleColumns, int intColumns, FileChannel channel) {
+        this.doubleColumns = doubleColumns;
+        this.blockBytes = BLOCK_ROWS * (doubleColumns * Double.BYTES + intColumns * Integer.BYTES);
+        this.channel = channel;
+    }
+
+    @Override
+    public void ensureCapacity(int rows) {
+        while ((long) blocks.size() * BLOCK_ROWS < rows) {
+            blocks.add(allocateBlock());
+        }
+    }
+
+    private ByteBuffer allocateBlock() {
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(blockBytes).order(ByteOrder.nativeOrder());
+        }
+        try {
+            long position = (long) blocks.size() * blockBytes;
+            return channel.map(FileChannel.MapMode.READ_WRITE, position, blockBytes).order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int doubleOffset(int column, int row) {
+        return (column * BLOCK_ROWS + (row & ROW_MASK)) * Double.BYTES;
+    }
+
+    private int intOffset(int column, int row) {
+        return doubleColumns * BLOCK_ROWS * Double.BYTES + (column * BLOCK_ROWS + (row & ROW_MASK)) * Integer.BYTES;
+    }
+
+    @Override
+    public double getDouble(int column, int row) {
+        return blocks.get(row >>> BLOCK_SHIFT).getDouble(doubleOffset(column, row));
+    }
+
+    @Override
+    public void setDouble(int column, int row, double value) {
+        blocks.get(row >>> BLOCK_SHIFT).putDouble(doubleOffset(column, row), value);
+    }
+
+    @Override
+    public int getInt(int column, int row) {
+        return blocks.get(row >>> BLOCK_SHIFT).getInt(intOffset(column, row));
+    }
+
+    @Override
+    public void setInt(int column, int row, int value) {
+        blocks.get(row >>> BLOCK_SHIFT).putInt(intOffset(column, row), value);
+    }
+
+    @Override
+    public void close() {
+        blocks.clear();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package SuperStore;
+
+/**
+ * Fixed width numeric columns backing a {@link FactTable}.
+ * Columns are addressed by index, double and int columns separately.
+ */
+interface FactColumns extends AutoCloseable {
+
+    /**
+     * Makes room for at least the given number of rows.
+     *
+     * @param rows the number of rows needed.
+     */
+    void ensureCapacity(int rows);
+
+    double getDouble(int column, int row);
+
+    void setDouble(int column, int row, double value);
+
+    int getInt(int column, int row);
+
+    void setInt(int column, int row, int value);
+
+    /**
+     * Releases the storage. The columns must not be used afterwards.
+     */
+    @Override
+    void close();
+}
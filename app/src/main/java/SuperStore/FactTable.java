@@ -0,0 +1,269 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stores line items column by column for analytics.
+ * <p>
+ * Every measure is a primitive column and every {@link Dimension} a column of
+ * dictionary codes, so an aggregation is a loop over a few dense columns
+ * instead of a walk through customers, orders and products. Row {@code i}
+ * of every column describes the same line item. Rows are only appended.
+ * <p>
+ * The columns live in arrays on the heap by default. A table created with
+ * {@link #offHeap()} or {@link #mapped(Path)} keeps them outside the heap,
+ * so the rows themselves neither need a large heap nor add to garbage
+ * collection work. The dictionaries stay on the heap. Most of them are
+ * bounded by a few hundred values, but the customer, order and product
+ * dictionaries hold one entry per distinct ID and grow with the data, an
+ * order ID for every two lines of the bundled file.
+ */
+public class FactTable implements AutoCloseable {
+    /** Code of a time dimension of a line item without an order date. */
+    public static final int NO_CODE = -1;
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+    // double columns
+    private static final int SALES = 0;
+    private static final int DISCOUNT = 1;
+    private static final int PROFIT = 2;
+    private static final int DOUBLE_COLUMNS = 3;
+    // int columns, followed by one code column per dimension
+    private static final int QUANTITY = 0;
+    private static final int ORDER_EPOCH_DAY = 1;
+    private static final int CODES = 2;
+    private static final int INT_COLUMNS = CODES + DIMENSIONS.length;
+
+    private int size;
+    private final FactColumns columns;
+    private final StringDictionary[] dictionaries = new StringDictionary[DIMENSIONS.length];
+    // year, quarter and month codes of every epoch day seen, 21 bits each
+    private final IntLongMap dateCodes = new IntLongMap();
+
+    /**
+     * Constructs an empty FactTable stored on the heap.
+     */
+    public FactTable() {
+        this(new HeapFactColumns(DOUBLE_COLUMNS, INT_COLUMNS));
+    }
+
+    private FactTable(FactColumns columns) {
+        this.columns = columns;
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = new StringDictionary();
+        }
+    }
+
+    /**
+     * Constructs an empty FactTable stored in direct memory outside the heap.
+     * The memory is released when the table is garbage collected.
+     *
+     * @return the fact table.
+     */
+    public static FactTable offHeap() {
+        return new FactTable(new DirectFactColumns(DOUBLE_COLUMNS, INT_COLUMNS, null));
+    }
+
+    /**
+     * Constructs an empty FactTable stored in a memory mapped file, so the
+     * rows are paged in and out by the operating system. The file is
+     * overwritten and deleted again when the table is closed.
+     *
+     * @param file the file to store the rows in.
+     * @return the fact table.
+     * @throws IOException if the file cannot be created.
+     */
+    public static FactTable mapped(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE);
+        return new FactTable(new DirectFactColumns(DOUBLE_COLUMNS, INT_COLUMNS, channel));
+    }
+
+    /**
+     * Appends a line item. Missing attributes, such as an order without an
+     * address, are stored as empty strings.
+     *
+     * @param customer the customer who placed the order, may be null.
+     * @param order    the order containing the line.
+     * @param product  the product entry of the line.
+     * @return the row of the line item.
+     */
+    public int add(Customer customer, Order order, Product product) {
+        int row = size;
+        columns.ensureCapacity(row + 1);
+        columns.setDouble(SALES, row, product.getSales());
+        columns.setInt(QUANTITY, row, product.getQuantity());
+        columns.setDouble(DISCOUNT, row, product.getDiscount());
+        columns.setDouble(PROFIT, row, product.getProfit());
+        columns.setInt(ORDER_EPOCH_DAY, row, order.getOrderEpochDay());
+        Address address = order.getAddress();
+        CategoryInfo category = product.getCategory();
+        encode(Dimension.CUSTOMER, row, customer == null ? null : customer.getCustomerId());
+        encode(Dimension.SEGMENT, row, customer == null ? null : customer.getSegment());
+        encode(Dimension.ORDER, row, order.getOrderId());
+        encode(Dimension.SHIP_MODE, row, order.getShipMode());
+        encode(Dimension.COUNTRY, row, address == null ? null : address.getCountry());
+        encode(Dimension.REGION, row, address == null ? null : address.getRegion());
+        encode(Dimension.STATE, row, address == null ? null : address.getState());
+        encode(Dimension.CITY, row, address == null ? null : address.getCity());
+        encode(Dimension.PRODUCT, row, product.getProductId());
+        encode(Dimension.CATEGORY, row, category == null ? null : category.category());
+        encode(Dimension.SUB_CATEGORY, row, category == null ? null : category.subCategory());
+        encodeDate(row, order.getOrderEpochDay());
+        size++;
+        return row;
+    }
+
+    // the date codes are computed once per distinct day
+    private void encodeDate(int row, int epochDay) {
+        long packed = NO_CODE;
+        if (epochDay != DateDecoder.NO_DATE) {
+            packed = dateCodes.getOrDefault(epochDay, NO_CODE);
+            if (packed == NO_CODE) {
+                int yearMonth = DateDecoder.yearMonth(epochDay);
+                int year = yearMonth / 100;
+                int month = yearMonth % 100;
+                long yearCode = dictionary(Dimension.YEAR).encode(String.valueOf(year));
+                long quarterCode = dictionary(Dimension.QUARTER).encode(year + "/Q" + ((month + 2) / 3));
+                long monthCode = dictionary(Dimension.MONTH).encode(String.format("%d/%02d", year, month));
+                packed = yearCode << 42 | quarterCode << 21 | monthCode;
+                dateCodes.put(epochDay, packed);
+            }
+        }
+        int mask = (1 << 21) - 1;
+        boolean dated = packed != NO_CODE;
+        columns.setInt(CODES + Dimension.YEAR.ordinal(), row, dated ? (int) (packed >>> 42) : NO_CODE);
+        columns.setInt(CODES + Dimension.QUARTER.ordinal(), row, dated ? (int) (packed >>> 21) & mask : NO_CODE);
+        columns.setInt(CODES + Dimension.MONTH.ordinal(), row, dated ? (int) packed & mask : NO_CODE);
+    }
+
+    private void encode(Dimension dimension, int row, String value) {
+        int code = dictionaries[dimension.ordinal()].encode(value == null ? "" : value);
+        columns.setInt(CODES + dimension.ordinal(), row, code);
+    }
+
+    /**
+     * Gets the number of line items.
+     *
+     * @return the row count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the sales amount of a line item.
+     *
+     * @param row the row of the line item.
+     * @return the sales amount.
+     */
+    public double sales(int row) {
+        return columns.getDouble(SALES, row);
+    }
+
+    /**
+     * Gets the quantity sold of a line item.
+     *
+     * @param row the row of the line item.
+     * @return the quantity sold.
+     */
+    public int quantity(int row) {
+        return columns.getInt(QUANTITY, row);
+    }
+
+    /**
+     * Gets the discount of a line item.
+     *
+     * @param row the row of the line item.
+     * @return the discount.
+     */
+    public double discount(int row) {
+        return columns.getDouble(DISCOUNT, row);
+    }
+
+    /**
+     * Gets the profit of a line item.
+     *
+     * @param row the row of the line item.
+     * @return the profit.
+     */
+    public double profit(int row) {
+        return columns.getDouble(PROFIT, row);
+    }
+
+    /**
+     * Gets the order date of a line item.
+     *
+     * @param row the row of the line item.
+     * @return the epoch day, or {@link DateDecoder#NO_DATE} if the order has no date.
+     */
+    public int orderEpochDay(int row) {
+        return columns.getInt(ORDER_EPOCH_DAY, row);
+    }
+
+    /**
+     * Gets the dictionary code of an attribute of a line item.
+     *
+     * @param dimension the attribute.
+     * @param row       the row of the line item.
+     * @return the code, an index into {@link #dictionary(Dimension)}, or
+     *         {@link #NO_CODE} for a time dimension of a line item without an
+     *         order date.
+     */
+    public int code(Dimension dimension, int row) {
+        return columns.getInt(CODES + dimension.ordinal(), row);
+    }
+
+    /**
+     * Gets the dictionary of an attribute.
+     *
+     * @param dimension the attribute.
+     * @return the dictionary mapping codes to values.
+     */
+    public StringDictionary dictionary(Dimension dimension) {
+        return dictionaries[dimension.ordinal()];
+    }
+
+    /**
+     * Sums the sales of every line item.
+     *
+     * @return the total sales amount.
+     */
+    public double totalSales() {
+        double total = 0;
+        for (int row = 0; row < size; row++) {
+            total += columns.getDouble(SALES, row);
+        }
+        return total;
+    }
+
+    /**
+     * Sums the sales per value of an attribute.
+     *
+     * @param dimension the attribute to group by.
+     * @return the sales indexed by dictionary code.
+     */
+    public double[] salesBy(Dimension dimension) {
+        int column = CODES + dimension.ordinal();
+        double[] totals = new double[dictionaries[dimension.ordinal()].size()];
+        for (int row = 0; row < size; row++) {
+            int code = columns.getInt(column, row);
+            if (code != NO_CODE) {
+                totals[code] += columns.getDouble(SALES, row);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Releases the storage of the table. Closing a mapped table deletes its
+     * file. The table must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        columns.close();
+    }
+}
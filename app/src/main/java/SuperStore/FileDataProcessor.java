@@ -1,21 +1,30 @@
 package SuperStore;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Processes data from a file by reading its contents and splitting it into
  * lines and arrays.
  * The first line is treated as titles, and the remaining lines are processed
  * into arrays based on a delimiter.
+ * Paths of files on the file system are read through a {@link MappedCsvReader},
+ * any other path is looked up on the classpath (fits JAR).
  */
 public class FileDataProcessor {
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private String filePath;
-    private List<String> lines;
     private String[] titles;
 
     /**
@@ -25,8 +34,7 @@ public class FileDataProcessor {
      * @throws IllegalArgumentException if filePath is null or empty.
      */
     public FileDataProcessor(final String filePath) {
-                this.filePath = filePath;
-        this.lines = new ArrayList<>();
+        this.filePath = filePath;
     }
 
     /**
@@ -39,7 +47,7 @@ public class FileDataProcessor {
     }
 
     /**
-     * Sets the file path and initializes the lines list.
+     * Sets the file path.
      *
      * @param filePath the file path to set.
      * @throws IllegalArgumentException if filePath is null or empty.
@@ -49,31 +57,132 @@ public class FileDataProcessor {
             throw new IllegalArgumentException("Invalid file path: " + filePath);
         }
         this.filePath = filePath;
-        this.lines = new ArrayList<>();
     }
 
     /**
      * Reads the file specified by filePath and splits its content into lines.
      * It then processes these lines into arrays.
      *
+     * @return a list of string arrays, each representing data from one line of the
+     *         file.
      * @throws IOException if an I/O error occurs reading from the file.
      */
     public List<String[]> processFile() throws IOException {
-        InputStream is = getClass().getResourceAsStream(filePath);
-        try (BufferedReader bfr = new BufferedReader(new InputStreamReader(is))) {
-            String line;
-            while ((line = bfr.readLine()) != null) {
-                lines.add(line);
+        List<String[]> listArr = new ArrayList<>();
+        processFile(listArr::add);
+        return listArr;
+    }
+
+    /**
+     * Streams the file specified by filePath row by row.
+     * The first line is stored as titles, every following line is split and
+     * handed to the consumer before the next one is read, so no line is kept
+     * after the consumer returns.
+     *
+     * @param rowConsumer receives the fields of each data line.
+     * @throws IOException if an I/O error occurs reading from the file.
+     */
+    public void processFile(final Consumer<String[]> rowConsumer) throws IOException {
+        processRows(row -> rowConsumer.accept(row.toArray()));
+    }
+
+    /**
+     * Streams the file specified by filePath row by row without splitting the
+     * lines into arrays. Each row is a view over the read buffer that is only
+     * valid during the call, fields become strings only when they are read.
+     *
+     * @param rowConsumer receives each data line.
+     * @throws IOException if an I/O error occurs reading from the file.
+     */
+    public void processRows(final Consumer<? super DataRow> rowConsumer) throws IOException {
+        Path path = getFileSystemPath();
+        if (path != null) {
+            try {
+                this.titles = new MappedCsvReader(path).readRows(rowConsumer);
+            } catch (IOException e) {
+                throw new IOException("Error reading from file: " + filePath, e);
             }
-            return processLinesIntoArrays(lines);
+            return;
+        }
+        InputStream is = getClass().getResourceAsStream(filePath);
+        if (is == null) {
+            throw new IOException("File not found: " + filePath);
+        }
+        this.titles = new String[0];
+        boolean[] titleRow = { true };
+        try (InputStream in = is) {
+            readStream(in, row -> {
+                if (titleRow[0]) {
+                    this.titles = row.toArray();
+                    titleRow[0] = false;
+                } else {
+                    rowConsumer.accept(row);
+                }
+            });
         } catch (IOException e) {
             throw new IOException("Error reading from file: " + filePath, e);
         }
-    } 
+    }
+
+    /**
+     * Tokenizes a stream chunk by chunk, a record cut at the end of a chunk is
+     * moved to the front of the buffer and completed by the next read.
+     */
+    private void readStream(InputStream in, Consumer<? super DataRow> rowConsumer) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        byte[] bytes = new byte[STREAM_BUFFER_SIZE];
+        int filled = 0;
+        int pos = 0;
+        boolean byteOrderMarkChecked = false;
+        while (true) {
+            if (filled == bytes.length) {
+                if (pos > 0) {
+                    System.arraycopy(bytes, pos, bytes, 0, filled - pos);
+                    filled -= pos;
+                    pos = 0;
+                } else {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+            }
+            int read = in.read(bytes, filled, bytes.length - filled);
+            boolean endOfInput = read < 0;
+            if (!endOfInput) {
+                filled += read;
+            }
+            if (!byteOrderMarkChecked) {
+                if (filled < 3 && !endOfInput) {
+                    continue;
+                }
+                pos = CsvTokenizer.byteOrderMarkLength(ByteBuffer.wrap(bytes, 0, filled), 0);
+                byteOrderMarkChecked = true;
+            }
+            pos = tokenizer.forEachRecord(ByteBuffer.wrap(bytes), pos, filled, endOfInput, rowConsumer);
+            if (endOfInput) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Resolves filePath on the file system.
+     *
+     * @return the path of the file, or null if filePath is not a regular file.
+     */
+    public Path getFileSystemPath() {
+        if (filePath == null || filePath.isEmpty()) {
+            return null;
+        }
+        try {
+            Path path = Paths.get(filePath);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
 
     /**
      * Processes a list of strings (lines) by splitting each line into an array of
-     * strings based on a delimiter.
+     * strings based on a delimiter, quoted fields may contain the delimiter.
      * The first line is assumed to be the titles and is separated from the data.
      *
      * @param lines the list of lines to process.
@@ -82,7 +191,15 @@ public class FileDataProcessor {
      */
     public List<String[]> processLinesIntoArrays(final List<String> lines) {
         List<String[]> listArr = new ArrayList<>();
-        lines.forEach(line -> listArr.add(line.split(";")));
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        lines.forEach(line -> {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            if (tokenizer.tokenize(ByteBuffer.wrap(bytes), 0, bytes.length, true) < 0) {
+                listArr.add(new String[] {line});
+            } else {
+                listArr.add(tokenizer.toArray());
+            }
+        });
         // Assumes the first line contains titles and removes it from the list
         this.titles = listArr.remove(0);
         return listArr;
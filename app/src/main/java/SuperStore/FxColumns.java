@@ -0,0 +1,51 @@
+package SuperStore;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.scene.control.TableColumn;
+import javafx.util.converter.LocalDateStringConverter;
+
+/**
+ * Adapts the plain model classes to JavaFX tables.
+ * <p>
+ * The model holds no JavaFX properties. A column built here reads its value
+ * through a getter when a cell is shown, and a {@code TableView} only creates
+ * cells for the rows on screen, so observable wrappers exist for visible rows
+ * only and are dropped when the cells are reused.
+ */
+public class FxColumns {
+    private static final LocalDateStringConverter DATE_CONVERTER = new LocalDateStringConverter();
+
+    private FxColumns() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Creates a read-only column showing the value of a getter.
+     *
+     * @param <S>    the type of the table rows.
+     * @param <T>    the type of the column values.
+     * @param title  the column header.
+     * @param getter reads the value of a row.
+     * @return the column.
+     */
+    public static <S, T> TableColumn<S, T> column(String title, Function<S, T> getter) {
+        TableColumn<S, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(getter.apply(cell.getValue())));
+        return column;
+    }
+
+    /**
+     * Creates a read-only column showing a date in the short format of the
+     * default locale.
+     *
+     * @param <S>    the type of the table rows.
+     * @param title  the column header.
+     * @param getter reads the date of a row, which may be null.
+     * @return the column.
+     */
+    public static <S> TableColumn<S, String> dateColumn(String title, Function<S, LocalDate> getter) {
+        return column(title, row -> DATE_CONVERTER.toString(getter.apply(row)));
+    }
+}
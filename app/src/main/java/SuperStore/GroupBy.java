@@ -0,0 +1,229 @@
+package SuperStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs group-by queries over the columns of a {@link FactTable}.
+ * <p>
+ * Each row is mapped to a group through its {@link GroupKeyEncoder} key.
+ * When the number of possible keys is small the group of a key is found in
+ * an array indexed by the key, otherwise in a {@link LongIntMap}. Measures
+ * are summed into primitive arrays indexed by group, and distinct orders and
+ * customers are counted through a set of group and code pairs. Approximate
+ * customer counts add the customer codes to a {@link HyperLogLog} per group
+ * instead, whose size does not grow with the number of customers.
+ * <p>
+ * Large tables are split into row ranges by a {@link Parallelism}, every
+ * range is grouped into its own {@link Groups} and the ranges are merged in
+ * row order, so groups keep the order in which they first occur. Filters
+ * are compared as dictionary codes, a value missing from the dictionary
+ * matches no line item.
+ */
+final class GroupBy {
+    // largest key space looked up through an array instead of a map
+    private static final long DENSE_LIMIT = 1 << 16;
+    private static final int INITIAL_GROUPS = 64;
+
+    private GroupBy() {
+        // Private constructor to prevent instantiation
+    }
+
+    static GroupByResult run(FactTable facts, AggregateQuery query, Parallelism parallelism) {
+        // rows added while the query runs may use codes the encoder does not know
+        int rows = facts.size();
+        List<Dimension> groupDimensions = new ArrayList<>(query.dimensions());
+        EnumSet<Measure> requested = query.measures().isEmpty() ? EnumSet.noneOf(Measure.class)
+                : EnumSet.copyOf(query.measures());
+        GroupKeyEncoder encoder = new GroupKeyEncoder(facts, groupDimensions);
+        Dimension[] filterDimensions = query.filters().keySet().toArray(new Dimension[0]);
+        int[] filterCodes = new int[filterDimensions.length];
+        for (int i = 0; i < filterDimensions.length; i++) {
+            filterCodes[i] = facts.dictionary(filterDimensions[i]).lookup(query.filters().get(filterDimensions[i]));
+            if (filterCodes[i] == FactTable.NO_CODE) {
+                // no line item has the value
+                rows = 0;
+            }
+        }
+        Groups groups = parallelism.reduce(rows, (from, to) -> {
+            Groups part = new Groups(facts, encoder, requested);
+            for (int row = from; row < to; row++) {
+                if (matches(facts, filterDimensions, filterCodes, row)) {
+                    part.add(row);
+                }
+            }
+            return part;
+        }, Groups::merge);
+        return new GroupByResult(facts, groupDimensions, encoder, requested, groups.keys(), groups.values());
+    }
+
+    private static boolean matches(FactTable facts, Dimension[] filterDimensions, int[] filterCodes, int row) {
+        for (int i = 0; i < filterDimensions.length; i++) {
+            if (facts.code(filterDimensions[i], row) != filterCodes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The groups and measures of one range of rows.
+     */
+    private static final class Groups {
+        private final FactTable facts;
+        private final GroupKeyEncoder encoder;
+        private final EnumSet<Measure> requested;
+        private final boolean sales;
+        private final boolean profit;
+        private final boolean quantity;
+        private final int[] denseGroups;
+        private final LongIntMap sparseGroups;
+        private final LongIntMap seenOrders;
+        private final LongIntMap seenCustomers;
+        private HyperLogLog[] sketches;
+        private int groupCount;
+        private long[] keys = new long[INITIAL_GROUPS];
+        private final double[][] values = new double[Measure.values().length][];
+
+        Groups(FactTable facts, GroupKeyEncoder encoder, EnumSet<Measure> requested) {
+            this.facts = facts;
+            this.encoder = encoder;
+            this.requested = requested;
+            sales = requested.contains(Measure.SALES);
+            profit = requested.contains(Measure.PROFIT);
+            quantity = requested.contains(Measure.QUANTITY);
+            if (encoder.cardinality() <= DENSE_LIMIT) {
+                denseGroups = new int[(int) encoder.cardinality()];
+                Arrays.fill(denseGroups, -1);
+                sparseGroups = null;
+            } else {
+                denseGroups = null;
+                sparseGroups = new LongIntMap();
+            }
+            seenOrders = requested.contains(Measure.ORDERS) ? new LongIntMap() : null;
+            seenCustomers = requested.contains(Measure.CUSTOMERS) ? new LongIntMap() : null;
+            sketches = requested.contains(Measure.APPROX_CUSTOMERS) ? new HyperLogLog[INITIAL_GROUPS] : null;
+            for (Measure measure : requested) {
+                values[measure.ordinal()] = new double[INITIAL_GROUPS];
+            }
+        }
+
+        void add(int row) {
+            long key = encoder.encode(row);
+            if (key == GroupKeyEncoder.NO_KEY) {
+                return;
+            }
+            int group = group(key);
+            if (sales) {
+                values[Measure.SALES.ordinal()][group] += facts.sales(row);
+            }
+            if (profit) {
+                values[Measure.PROFIT.ordinal()][group] += facts.profit(row);
+            }
+            if (quantity) {
+                values[Measure.QUANTITY.ordinal()][group] += facts.quantity(row);
+            }
+            if (seenOrders != null) {
+                countDistinct(seenOrders, Measure.ORDERS, group, facts.code(Dimension.ORDER, row));
+            }
+            if (seenCustomers != null) {
+                countDistinct(seenCustomers, Measure.CUSTOMERS, group, facts.code(Dimension.CUSTOMER, row));
+            }
+            if (sketches != null) {
+                sketch(group).add(facts.code(Dimension.CUSTOMER, row));
+            }
+        }
+
+        /**
+         * Adds the groups of the following range of rows. Sums are added, and
+         * the distinct pairs of the other range are counted again so values
+         * seen in both ranges are counted once.
+         */
+        Groups merge(Groups other) {
+            int[] groupOf = new int[other.groupCount];
+            for (int group = 0; group < other.groupCount; group++) {
+                groupOf[group] = group(other.keys[group]);
+            }
+            for (Measure measure : EnumSet.of(Measure.SALES, Measure.PROFIT, Measure.QUANTITY)) {
+                if (requested.contains(measure)) {
+                    double[] sums = values[measure.ordinal()];
+                    double[] otherSums = other.values[measure.ordinal()];
+                    for (int group = 0; group < other.groupCount; group++) {
+                        sums[groupOf[group]] += otherSums[group];
+                    }
+                }
+            }
+            if (seenOrders != null) {
+                other.seenOrders.forEach((pair, count) -> countDistinct(seenOrders, Measure.ORDERS,
+                        groupOf[(int) (pair >>> 32)], (int) pair));
+            }
+            if (seenCustomers != null) {
+                other.seenCustomers.forEach((pair, count) -> countDistinct(seenCustomers, Measure.CUSTOMERS,
+                        groupOf[(int) (pair >>> 32)], (int) pair));
+            }
+            if (sketches != null) {
+                for (int group = 0; group < other.groupCount; group++) {
+                    if (other.sketches[group] != null) {
+                        sketch(groupOf[group]).merge(other.sketches[group]);
+                    }
+                }
+            }
+            return this;
+        }
+
+        long[] keys() {
+            return Arrays.copyOf(keys, groupCount);
+        }
+
+        double[][] values() {
+            if (sketches != null) {
+                for (int group = 0; group < groupCount; group++) {
+                    values[Measure.APPROX_CUSTOMERS.ordinal()][group] = sketch(group).estimate();
+                }
+            }
+            for (Measure measure : requested) {
+                values[measure.ordinal()] = Arrays.copyOf(values[measure.ordinal()], groupCount);
+            }
+            return values;
+        }
+
+        private int group(long key) {
+            int group = denseGroups != null ? denseGroups[(int) key] : sparseGroups.getOrDefault(key, -1);
+            if (group < 0) {
+                group = groupCount++;
+                if (denseGroups != null) {
+                    denseGroups[(int) key] = group;
+                } else {
+                    sparseGroups.put(key, group);
+                }
+                if (group == keys.length) {
+                    keys = Arrays.copyOf(keys, group * 2);
+                    for (Measure measure : requested) {
+                        values[measure.ordinal()] = Arrays.copyOf(values[measure.ordinal()], group * 2);
+                    }
+                }
+                keys[group] = key;
+            }
+            return group;
+        }
+
+        private HyperLogLog sketch(int group) {
+            if (group >= sketches.length) {
+                sketches = Arrays.copyOf(sketches, keys.length);
+            }
+            if (sketches[group] == null) {
+                sketches[group] = new HyperLogLog();
+            }
+            return sketches[group];
+        }
+
+        private void countDistinct(LongIntMap seen, Measure measure, int group, int code) {
+            if (seen.addTo((long) group << 32 | code, 1) == 1) {
+                values[measure.ordinal()][group]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package SuperStore;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The groups of a group-by query over a {@link FactTable}, in the order
+ * they were first seen, with the requested {@link Measure}s of each group.
+ */
+public class GroupByResult {
+    private final FactTable facts;
+    private final List<Dimension> dimensions;
+    private final GroupKeyEncoder encoder;
+    private final EnumSet<Measure> measures;
+    private final long[] keys;
+    private final double[][] values;
+
+    GroupByResult(FactTable facts, List<Dimension> dimensions, GroupKeyEncoder encoder, EnumSet<Measure> measures,
+            long[] keys, double[][] values) {
+        this.facts = facts;
+        this.dimensions = Collections.unmodifiableList(dimensions);
+        this.encoder = encoder;
+        this.measures = measures;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Gets the number of groups.
+     *
+     * @return the group count.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the dimensions the line items were grouped by.
+     *
+     * @return the dimensions, in query order.
+     */
+    public List<Dimension> getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Gets the value of a dimension of a group.
+     *
+     * @param group     the index of the group.
+     * @param dimension the index of the dimension in {@link #getDimensions()}.
+     * @return the value, for example "California".
+     */
+    public String getValue(int group, int dimension) {
+        return facts.dictionary(dimensions.get(dimension)).decode(code(group, dimension));
+    }
+
+    // the dictionary code of a dimension of a group
+    int code(int group, int dimension) {
+        return encoder.code(keys[group], dimension);
+    }
+
+    /**
+     * Gets a measure of a group.
+     *
+     * @param group   the index of the group.
+     * @param measure the measure.
+     * @return the value of the measure.
+     * @throws IllegalArgumentException if the measure was not requested.
+     */
+    public double get(int group, Measure measure) {
+        if (!measures.contains(measure)) {
+            throw new IllegalArgumentException(measure + " was not computed");
+        }
+        return values[measure.ordinal()][group];
+    }
+
+    /**
+     * Gets a measure of every group keyed by the group values. The values of
+     * several dimensions are joined with ", ", the single group of a query
+     * without dimensions has the key "".
+     *
+     * @param measure the measure.
+     * @return a map of group values to the measure.
+     * @throws IllegalArgumentException if the measure was not requested.
+     */
+    public HashMap<String, Double> toMap(Measure measure) {
+        HashMap<String, Double> map = new HashMap<>();
+        for (int group = 0; group < size(); group++) {
+            StringBuilder key = new StringBuilder();
+            for (int dimension = 0; dimension < dimensions.size(); dimension++) {
+                key.append(dimension == 0 ? "" : ", ").append(getValue(group, dimension));
+            }
+            map.put(key.toString(), get(group, measure));
+        }
+        return map;
+    }
+
+    /**
+     * Gets a counting measure of every group keyed by the group values, like
+     * {@link #toMap(Measure)}.
+     *
+     * @param measure the measure, such as {@link Measure#ORDERS}.
+     * @return a map of group values to the count.
+     * @throws IllegalArgumentException if the measure was not requested.
+     */
+    public HashMap<String, Integer> toCountMap(Measure measure) {
+        HashMap<String, Integer> map = new HashMap<>();
+        toMap(measure).forEach((key, value) -> map.put(key, value.intValue()));
+        return map;
+    }
+}
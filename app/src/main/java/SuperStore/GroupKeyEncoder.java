@@ -0,0 +1,99 @@
+package SuperStore;
+
+import java.util.List;
+
+/**
+ * Combines the dictionary codes of several dimensions of a fact table row
+ * into one {@code long} group key.
+ * <p>
+ * The key is a mixed radix number: each dimension is a digit whose radix is
+ * the size of its dictionary, so distinct code combinations give distinct
+ * keys and no key string is built. The column of every digit and its place
+ * value are computed once when the encoder is created.
+ */
+class GroupKeyEncoder {
+    /** Key of a row without a value for one of the dimensions. */
+    static final long NO_KEY = -1;
+
+    private final FactTable facts;
+    private final Dimension[] dimensions;
+    private final long[] strides;
+    private final long cardinality;
+
+    /**
+     * Compiles an encoder for the current dictionaries of a fact table.
+     *
+     * @param facts      the fact table.
+     * @param dimensions the dimensions of the key, most significant first.
+     * @throws IllegalArgumentException if the combinations do not fit in a long.
+     */
+    GroupKeyEncoder(FactTable facts, List<Dimension> dimensions) {
+        this.facts = facts;
+        this.dimensions = dimensions.toArray(new Dimension[0]);
+        this.strides = new long[this.dimensions.length];
+        long stride = 1;
+        try {
+            for (int i = this.dimensions.length - 1; i >= 0; i--) {
+                strides[i] = stride;
+                stride = Math.multiplyExact(stride, Math.max(1, facts.dictionary(this.dimensions[i]).size()));
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many value combinations for " + dimensions);
+        }
+        this.cardinality = stride;
+    }
+
+    /**
+     * Gets the number of possible keys, every key is below it.
+     *
+     * @return the product of the dictionary sizes.
+     */
+    long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Encodes the group key of a row.
+     *
+     * @param row the row.
+     * @return the key, or {@link #NO_KEY} if the row has no value for a time
+     *         dimension.
+     */
+    long encode(int row) {
+        long key = 0;
+        for (int i = 0; i < dimensions.length; i++) {
+            int code = facts.code(dimensions[i], row);
+            if (code == FactTable.NO_CODE) {
+                return NO_KEY;
+            }
+            key += code * strides[i];
+        }
+        return key;
+    }
+
+    /**
+     * Encodes the group key of a combination of codes.
+     *
+     * @param codes the code of every dimension, in key order.
+     * @return the key.
+     */
+    long encode(int[] codes) {
+        long key = 0;
+        for (int i = 0; i < dimensions.length; i++) {
+            key += codes[i] * strides[i];
+        }
+        return key;
+    }
+
+    /**
+     * Extracts the code of one dimension from a key.
+     *
+     * @param key       the key.
+     * @param dimension the index of the dimension in the key.
+     * @return the dictionary code.
+     */
+    int code(long key, int dimension) {
+        long radix = dimension == 0 ? Long.MAX_VALUE : strides[dimension - 1];
+        return (int) (key % radix / strides[dimension]);
+    }
+}
@@ -0,0 +1,60 @@
+package SuperStore;
+
+import java.util.Arrays;
+
+/**
+ * Stores the columns of a {@link FactTable} in primitive arrays on the heap.
+ */
+class HeapFactColumns implements FactColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final double[][] doubles;
+    private final int[][] ints;
+
+    HeapFactColumns(int doubleColumns, int intColumns) {
+        doubles = new double[doubleColumns][INITIAL_CAPACITY];
+        ints = new int[intColumns][INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void ensureCapacity(int rows) {
+        int capacity = doubles.length > 0 ? doubles[0].length : ints[0].length;
+        if (rows <= capacity) {
+            return;
+        }
+        while (capacity < rows) {
+            capacity *= 2;
+        }
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = Arrays.copyOf(doubles[i], capacity);
+        }
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = Arrays.copyOf(ints[i], capacity);
+        }
+    }
+
+    @Override
+    public double getDouble(int column, int row) {
+        return doubles[column][row];
+    }
+
+    @Override
+    public void setDouble(int column, int row, double value) {
+        doubles[column][row] = value;
+    }
+
+    @Override
+    public int getInt(int column, int row) {
+        return ints[column][row];
+    }
+
+    @Override
+    public void setInt(int column, int row, int value) {
+        ints[column][row] = value;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+}
@@ -0,0 +1,75 @@
+package SuperStore;
+
+import java.util.List;
+
+/**
+ * The drill paths through the dimensions of a {@link FactTable}, from the
+ * coarsest level to the finest.
+ */
+public enum Hierarchy {
+    /** Region, state and city of the shipping address. */
+    GEOGRAPHY(Dimension.REGION, Dimension.STATE, Dimension.CITY),
+    /** Year, quarter and month of the order date. */
+    TIME(Dimension.YEAR, Dimension.QUARTER, Dimension.MONTH),
+    /** Category and sub-category of the product. */
+    PRODUCT(Dimension.CATEGORY, Dimension.SUB_CATEGORY);
+
+    private final List<Dimension> levels;
+
+    Hierarchy(Dimension... levels) {
+        this.levels = List.of(levels);
+    }
+
+    /**
+     * Gets the levels of the hierarchy.
+     *
+     * @return the dimensions, coarsest first.
+     */
+    public List<Dimension> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Finds the hierarchy a dimension is a level of.
+     *
+     * @param dimension the dimension.
+     * @return the hierarchy, or null if the dimension is in none.
+     */
+    public static Hierarchy of(Dimension dimension) {
+        for (Hierarchy hierarchy : values()) {
+            if (hierarchy.levels.contains(dimension)) {
+                return hierarchy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the next coarser level of a dimension.
+     *
+     * @param dimension the dimension, for example STATE.
+     * @return the parent level, such as REGION, or null for the top level
+     *         or a dimension in no hierarchy.
+     */
+    public static Dimension parent(Dimension dimension) {
+        Hierarchy hierarchy = of(dimension);
+        int level = hierarchy == null ? 0 : hierarchy.levels.indexOf(dimension);
+        return level == 0 ? null : hierarchy.levels.get(level - 1);
+    }
+
+    /**
+     * Gets the next finer level of a dimension.
+     *
+     * @param dimension the dimension, for example STATE.
+     * @return the child level, such as CITY, or null for the finest level
+     *         or a dimension in no hierarchy.
+     */
+    public static Dimension child(Dimension dimension) {
+        Hierarchy hierarchy = of(dimension);
+        if (hierarchy == null) {
+            return null;
+        }
+        int level = hierarchy.levels.indexOf(dimension);
+        return level == hierarchy.levels.size() - 1 ? null : hierarchy.levels.get(level + 1);
+    }
+}
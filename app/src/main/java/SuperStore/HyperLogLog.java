@@ -0,0 +1,222 @@
+package SuperStore;
+
+/**
+ * Estimates the number of distinct values added to it in a fixed amount of
+ * memory.
+ * <p>
+ * A value is hashed to 64 bits; the first bits select one of 2^precision
+ * registers and the register keeps the longest run of leading zeros seen in
+ * the remaining bits. The harmonic mean of the registers estimates the
+ * cardinality with a standard error of about 1.04 / sqrt(2^precision), 1.6%
+ * for the default precision of 12, in 4 KB however many values are added.
+ * Small cardinalities are counted from the empty registers instead, which is
+ * more precise. Two sketches of the same precision merge by keeping the
+ * larger register, so sketches of partitions or threads can be combined into
+ * the sketch of all their values.
+ * <p>
+ * A sketch starts sparse, keeping only its non-empty registers in a small
+ * hash table, and switches to one byte per register once a sixteenth of the
+ * registers are set. A sparse sketch holds the same registers as a dense
+ * one and gives the same estimate, but a group with a few values costs a few
+ * bytes instead of 4 KB, and no more than 2 KB at the default precision.
+ */
+public class HyperLogLog {
+    /** The default number of index bits. */
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final int INITIAL_SPARSE_CAPACITY = 4;
+    private static final int RANK_BITS = 6;
+    private static final int RANK_MASK = (1 << RANK_BITS) - 1;
+
+    private final int precision;
+    // one register per index once dense, null while sparse
+    private byte[] registers;
+    // the non-empty registers as index << RANK_BITS | rank, 0 for a free
+    // slot; null once dense
+    private int[] sparse = new int[INITIAL_SPARSE_CAPACITY];
+    private int sparseCount;
+
+    /**
+     * Constructs an empty HyperLogLog with the default precision.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs an empty HyperLogLog.
+     *
+     * @param precision the number of index bits, from 4 to 18; the sketch has
+     *                  2^precision one byte registers.
+     * @throws IllegalArgumentException if precision is out of range.
+     */
+    public HyperLogLog(final int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision has to be between 4 and 18");
+        }
+        this.precision = precision;
+    }
+
+    /**
+     * Gets the number of index bits.
+     *
+     * @return the precision.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Adds a value, such as the dictionary code of a customer.
+     *
+     * @param value the value.
+     */
+    public void add(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - precision));
+        // the marker bit bounds the rank when the remaining bits are all 0
+        int rank = Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1;
+        update(index, rank);
+    }
+
+    /**
+     * Adds the values of another sketch to this one.
+     *
+     * @param other the sketch to merge, it is not changed.
+     * @throws IllegalArgumentException if the precisions differ.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge precision " + other.precision + " into " + precision);
+        }
+        if (other.registers == null) {
+            for (int entry : other.sparse) {
+                if (entry != 0) {
+                    update(entry >>> RANK_BITS, entry & RANK_MASK);
+                }
+            }
+            return;
+        }
+        if (registers == null) {
+            toDense();
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of distinct values added.
+     *
+     * @return the estimated cardinality.
+     */
+    public long estimate() {
+        int m = 1 << precision;
+        double sum = 0;
+        int empty = 0;
+        if (registers != null) {
+            for (byte register : registers) {
+                sum += Math.scalb(1.0, -register);
+                if (register == 0) {
+                    empty++;
+                }
+            }
+        } else {
+            empty = m - sparseCount;
+            sum = empty;
+            for (int entry : sparse) {
+                if (entry != 0) {
+                    sum += Math.scalb(1.0, -(entry & RANK_MASK));
+                }
+            }
+        }
+        double alpha = switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && empty > 0) {
+            // linear counting
+            estimate = m * Math.log((double) m / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Gets the number of bytes the registers take.
+     *
+     * @return the size of the sparse table or of the dense registers.
+     */
+    int registerBytes() {
+        return registers != null ? registers.length : sparse.length * Integer.BYTES;
+    }
+
+    private void update(int index, int rank) {
+        if (registers != null) {
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+        int mask = sparse.length - 1;
+        for (int slot = index & mask; ; slot = (slot + 1) & mask) {
+            int entry = sparse[slot];
+            if (entry == 0) {
+                if (sparseCount >= (1 << precision) / 16) {
+                    toDense();
+                    update(index, rank);
+                    return;
+                }
+                sparse[slot] = index << RANK_BITS | rank;
+                if (++sparseCount * 2 > sparse.length) {
+                    growSparse();
+                }
+                return;
+            }
+            if (entry >>> RANK_BITS == index) {
+                if (rank > (entry & RANK_MASK)) {
+                    sparse[slot] = index << RANK_BITS | rank;
+                }
+                return;
+            }
+        }
+    }
+
+    private void growSparse() {
+        int[] old = sparse;
+        sparse = new int[old.length * 2];
+        int mask = sparse.length - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int slot = (entry >>> RANK_BITS) & mask;
+                while (sparse[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                sparse[slot] = entry;
+            }
+        }
+    }
+
+    private void toDense() {
+        registers = new byte[1 << precision];
+        for (int entry : sparse) {
+            if (entry != 0) {
+                registers[entry >>> RANK_BITS] = (byte) (entry & RANK_MASK);
+            }
+        }
+        sparse = null;
+        sparseCount = 0;
+    }
+
+    // the SplitMix64 finalizer, so dense codes spread over all bits
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,145 @@
+package SuperStore;
+
+/**
+ * Encodes customer and order IDs into {@code long} keys.
+ * <p>
+ * IDs of the fixed Superstore patterns are packed arithmetically: customer
+ * IDs like {@code CG-12520} (two letters, five digits) and order IDs like
+ * {@code CA-2016-152156} (two letters, a year and six digits). Packing reads
+ * the characters straight from a {@link DataRow#chars(int)} view, so looking
+ * up a known customer or order builds no string and hashes a single long.
+ * Any other ID falls back to a code in a dictionary. {@link #decode(long)}
+ * turns a key back into the ID for display. One codec must not be shared
+ * between threads.
+ */
+public class IdCodec {
+    /** Key returned by {@link #lookup(CharSequence)} for an unknown ID. */
+    public static final long NO_ID = -1;
+
+    private static final int TAG_SHIFT = 60;
+    private static final long CUSTOMER_TAG = 1L << TAG_SHIFT;
+    private static final long ORDER_TAG = 2L << TAG_SHIFT;
+    private static final long DICTIONARY_TAG = 3L << TAG_SHIFT;
+    private static final long VALUE_MASK = (1L << TAG_SHIFT) - 1;
+    private static final int CUSTOMER_LENGTH = 8;
+    private static final int ORDER_LENGTH = 14;
+
+    private final StringDictionary dictionary = new StringDictionary();
+
+    /**
+     * Gets the key of an ID, adding IDs that cannot be packed to the
+     * dictionary.
+     *
+     * @param id the ID.
+     * @return the key.
+     */
+    public long encode(CharSequence id) {
+        long key = pack(id);
+        return key != NO_ID ? key : DICTIONARY_TAG | dictionary.encode(id.toString());
+    }
+
+    /**
+     * Gets the key of an ID without adding it to the dictionary.
+     *
+     * @param id the ID, may be null.
+     * @return the key, or {@link #NO_ID} if the ID cannot be packed and was
+     *         never encoded.
+     */
+    public long lookup(CharSequence id) {
+        if (id == null) {
+            return NO_ID;
+        }
+        long key = pack(id);
+        if (key != NO_ID) {
+            return key;
+        }
+        int code = dictionary.lookup(id.toString());
+        return code < 0 ? NO_ID : DICTIONARY_TAG | code;
+    }
+
+    /**
+     * Gets the ID of a key.
+     *
+     * @param key a key returned by this codec.
+     * @return the ID.
+     * @throws IllegalArgumentException if the key was not created by this codec.
+     */
+    public String decode(long key) {
+        long value = key & VALUE_MASK;
+        switch ((int) (key >>> TAG_SHIFT)) {
+            case 1: {
+                char[] chars = new char[CUSTOMER_LENGTH];
+                writeLetters(chars, (int) (value / 100_000));
+                chars[2] = '-';
+                writeDigits(chars, 3, 5, value % 100_000);
+                return new String(chars);
+            }
+            case 2: {
+                char[] chars = new char[ORDER_LENGTH];
+                long lettersAndYear = value / 1_000_000;
+                writeLetters(chars, (int) (lettersAndYear / 10_000));
+                chars[2] = '-';
+                writeDigits(chars, 3, 4, lettersAndYear % 10_000);
+                chars[7] = '-';
+                writeDigits(chars, 8, 6, value % 1_000_000);
+                return new String(chars);
+            }
+            case 3:
+                if (value < dictionary.size()) {
+                    return dictionary.decode((int) value);
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unknown ID key: " + key);
+    }
+
+    // the packed key of an ID of a fixed pattern, or NO_ID
+    private static long pack(CharSequence id) {
+        int length = id.length();
+        if ((length != CUSTOMER_LENGTH && length != ORDER_LENGTH) || id.charAt(2) != '-') {
+            return NO_ID;
+        }
+        int first = id.charAt(0) - 'A';
+        int second = id.charAt(1) - 'A';
+        if (first < 0 || first >= 26 || second < 0 || second >= 26) {
+            return NO_ID;
+        }
+        long letters = first * 26 + second;
+        if (length == CUSTOMER_LENGTH) {
+            long number = digits(id, 3, 5);
+            return number < 0 ? NO_ID : CUSTOMER_TAG | (letters * 100_000 + number);
+        }
+        long year = digits(id, 3, 4);
+        long number = digits(id, 8, 6);
+        if (year < 0 || id.charAt(7) != '-' || number < 0) {
+            return NO_ID;
+        }
+        return ORDER_TAG | ((letters * 10_000 + year) * 1_000_000 + number);
+    }
+
+    private static long digits(CharSequence id, int start, int count) {
+        long value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static void writeLetters(char[] chars, int letters) {
+        chars[0] = (char) ('A' + letters / 26);
+        chars[1] = (char) ('A' + letters % 26);
+    }
+
+    private static void writeDigits(char[] chars, int start, int count, long value) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package SuperStore;
+
+import java.util.HashMap;
+
+/**
+ * Shares repeated values between the records of one ingestion.
+ * <p>
+ * The orders file repeats a few segments, ship modes, regions, states,
+ * cities and categories on thousands of rows. Strings are interned in a
+ * {@link StringPool}, and equal addresses and categories resolve to one
+ * shared {@link Address} or {@link CategoryInfo} instance; both are
+ * immutable, so sharing them cannot leak a change from one order to another.
+ */
+public class IngestionCache {
+    private final StringPool strings = new StringPool();
+    private final HashMap<AddressKey, Address> addresses = new HashMap<>();
+    private final HashMap<String, HashMap<String, CategoryInfo>> categories = new HashMap<>();
+
+    private record AddressKey(String country, int postalCode, String region, String state, String city) {
+    }
+
+    /**
+     * Gets the canonical string with the given characters.
+     *
+     * @param chars the characters of the string.
+     * @return the pooled string.
+     */
+    public String string(CharSequence chars) {
+        return strings.intern(chars);
+    }
+
+    /**
+     * Gets the shared address with the given fields, creating it if it is new.
+     *
+     * @param country    The country of the address.
+     * @param postalCode The postal code of the address.
+     * @param region     The region of the address.
+     * @param state      The state of the address.
+     * @param city       The city of the address.
+     * @return the shared address.
+     * @throws IllegalArgumentException If a new address is not valid.
+     */
+    public Address address(String country, int postalCode, String region, String state, String city) {
+        AddressKey key = new AddressKey(strings.intern(country), postalCode, strings.intern(region),
+                strings.intern(state), strings.intern(city));
+        Address address = addresses.get(key);
+        if (address == null) {
+            address = new Address(key.country(), postalCode, key.region(), key.state(), key.city());
+            addresses.put(key, address);
+        }
+        return address;
+    }
+
+    /**
+     * Gets the shared instance of an address with the same fields.
+     *
+     * @param address the address to look up, may be null.
+     * @return the shared address, or null if address is null.
+     */
+    public Address address(Address address) {
+        if (address == null) {
+            return null;
+        }
+        return address(address.getCountry(), address.getPostalCode(), address.getRegion(), address.getState(),
+                address.getCity());
+    }
+
+    /**
+     * Gets the shared category with the given names, creating it if it is new.
+     *
+     * @param category    The name of the main category.
+     * @param subCategory The name of the sub-category.
+     * @return the shared category.
+     * @throws IllegalArgumentException If a new category is not valid.
+     */
+    public CategoryInfo category(String category, String subCategory) {
+        HashMap<String, CategoryInfo> subCategories = categories.get(category);
+        if (subCategories == null) {
+            subCategories = new HashMap<>();
+            categories.put(strings.intern(category), subCategories);
+        }
+        CategoryInfo categoryInfo = subCategories.get(subCategory);
+        if (categoryInfo == null) {
+            categoryInfo = new CategoryInfo(strings.intern(category), strings.intern(subCategory));
+            subCategories.put(categoryInfo.subCategory(), categoryInfo);
+        }
+        return categoryInfo;
+    }
+
+    /**
+     * Gets the shared instance of a category with the same names.
+     *
+     * @param categoryInfo the category to look up, may be null.
+     * @return the shared category, or null if categoryInfo is null.
+     */
+    public CategoryInfo category(CategoryInfo categoryInfo) {
+        if (categoryInfo == null) {
+            return null;
+        }
+        return category(categoryInfo.category(), categoryInfo.subCategory());
+    }
+}
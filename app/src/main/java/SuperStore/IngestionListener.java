@@ -0,0 +1,41 @@
+package SuperStore;
+
+/**
+ * Receives the customers, orders and product lines added to an
+ * {@link InstanceGenerator}, whether they are read from a file, tailed,
+ * merged from a parallel load or added by hand.
+ * <p>
+ * Events are delivered on the thread adding the data, a customer before its
+ * orders and an order before its lines. Line values are read from the fact
+ * table row of the line, since generators that keep lines only in their
+ * fact table create no lasting {@link Product}.
+ */
+public interface IngestionListener {
+    /**
+     * Called when a new customer was added.
+     *
+     * @param customer the customer.
+     */
+    default void customerAdded(Customer customer) {
+    }
+
+    /**
+     * Called when a new order was added.
+     *
+     * @param customer the customer of the order.
+     * @param order    the order.
+     */
+    default void orderAdded(Customer customer, Order order) {
+    }
+
+    /**
+     * Called when a new product line was added.
+     *
+     * @param customer the customer of the order.
+     * @param order    the order of the line.
+     * @param facts    the fact table holding the line.
+     * @param row      the row of the line in the fact table.
+     */
+    default void lineAdded(Customer customer, Order order, FactTable facts, int row) {
+    }
+}
@@ -0,0 +1,635 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * This class is responsible for generating instances based on provided information.
+ * It processes lists of string arrays representing data records, generating customers,
+ * orders, and products from this data, and tracking returns.
+ * Customers, orders and product lines added through the generator are
+ * indexed by their IDs for constant time lookups, and every product line is
+ * also appended to a {@link FactTable} for analytics. Customer and order IDs
+ * are indexed by their {@link IdCodec} keys, so a record of a known customer
+ * or order is matched without building or hashing an ID string.
+ * <p>
+ * A generator constructed with {@link #InstanceGenerator(FactTable)} keeps
+ * product lines only in the fact table, which may live outside the heap.
+ * Its orders have no products and {@link #getLineItems(String)} is always
+ * empty; line level results come from the fact table instead. Customers and
+ * orders stay on the heap, and so does one entry per line, 24 to 48 bytes,
+ * that finds duplicate lines.
+ * <p>
+ * A generator from {@link #partial()} parses one part of a file for a later
+ * {@link #merge(InstanceGenerator)}. It has no fact table and only logs its
+ * product lines in file order; the generator receiving the merged parts
+ * appends every line to its fact table once, in that order.
+ */
+public class InstanceGenerator {
+    private List<String[]> infoList;
+    private HashMap<String, Customer> customerMap;
+    private HashMap<String, Boolean> returnMap;
+    // secondary indexes, kept up to date by every path adding customers,
+    // orders or products; customers and orders are keyed by IdCodec keys
+    private final IdCodec ids = new IdCodec();
+    private final LongObjectMap<Customer> customerIndex = new LongObjectMap<>();
+    private final LongObjectMap<Order> orderIndex = new LongObjectMap<>();
+    private final LongObjectMap<Customer> orderCustomerIndex = new LongObjectMap<>();
+    private final HashMap<String, List<LineItem>> productIndex = new HashMap<>();
+    private final IngestionCache cache = new IngestionCache();
+    private final FactTable factTable;
+    // false when product lines live only in the fact table
+    private final boolean retainProducts;
+    // fact table row of every line by its order and product codes, used
+    // instead of the order product maps when products are not retained
+    private final LongIntMap lineRows;
+    // the product lines in file order of a partial generator, which has no
+    // fact table
+    private final List<Product> pendingLines;
+    private final DateDecoder dateDecoder = new DateDecoder();
+    // incremented by every change of the customers, orders, products or returns
+    private long version;
+    private final List<IngestionListener> listeners = new ArrayList<>();
+
+    /**
+     * Constructs an InstanceGenerator with predefined lists and maps.
+     * 
+     * @param infoList A list of string arrays containing data records.
+     * @param customerMap A map of customer ID to Customer objects.
+     * @param returnMap A map of order ID to return status.
+     */
+    public InstanceGenerator(List<String[]> infoList, HashMap<String, Customer> customerMap, HashMap<String, Boolean> returnMap) {
+        // get from FileDataProcessor
+        this.infoList = infoList;
+        this.customerMap = customerMap;
+        this.returnMap = returnMap;
+        this.factTable = new FactTable();
+        this.retainProducts = true;
+        this.lineRows = null;
+        this.pendingLines = null;
+        if (customerMap != null) {
+            customerMap.forEach((id, c) -> {
+                customerIndex.put(ids.encode(id), c);
+                c.getOrders().values().forEach(o -> indexOrder(c, o));
+            });
+        }
+    }
+
+    /**
+     * Constructs an InstanceGenerator with only a list of data records.
+     * Initializes empty maps for customers and returns.
+     * 
+     * @param infoList A list of string arrays containing data records.
+     */
+    public InstanceGenerator(List<String[]> infoList) {
+        // get from FileDataProcessor
+        this(infoList, new FactTable(), true);
+    }
+
+    /**
+     * Constructs an InstanceGenerator for streaming ingestion that keeps
+     * product lines only in the given fact table. Customers and orders are
+     * created as usual, but no Product objects are kept, so a fact table
+     * from {@link FactTable#offHeap()} or {@link FactTable#mapped(Path)}
+     * holds a dataset far larger than the heap.
+     *
+     * @param factTable The empty fact table receiving the product lines.
+     */
+    public InstanceGenerator(FactTable factTable) {
+        this(new ArrayList<>(), factTable, false);
+    }
+
+    private InstanceGenerator(List<String[]> infoList, FactTable factTable, boolean retainProducts) {
+        this.infoList = infoList;
+        this.customerMap = new HashMap<>();
+        this.returnMap = new HashMap<>();
+        this.factTable = factTable;
+        this.retainProducts = retainProducts;
+        this.lineRows = retainProducts ? null : new LongIntMap();
+        this.pendingLines = factTable == null ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Constructs an InstanceGenerator for streaming ingestion.
+     * No records are buffered, rows are added through
+     * {@link #initialization(FileDataProcessor)} or {@link #addCustomer(String[])}.
+     */
+    public InstanceGenerator() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * Constructs an InstanceGenerator for one part of a file that is merged
+     * into another generator afterwards. It has no fact table and no product
+     * index, so parsing a part does not build rows that the merge would copy
+     * again; it must not be used other than through
+     * {@link #merge(InstanceGenerator)}.
+     *
+     * @return the partial generator.
+     */
+    static InstanceGenerator partial() {
+        return new InstanceGenerator(new ArrayList<>(), null, true);
+    }
+
+    /**
+     * Returns the list of information records.
+     * 
+     * @return The list of string arrays representing data records.
+     */    
+    public List<String[]> getInfoList() {
+        return infoList;
+    }
+
+    /**
+     * Returns the map of customers.
+     * 
+     * @return A map of customer ID to Customer objects.
+     */
+    public HashMap<String, Customer> getCustomerMap() {
+        return customerMap;
+    }
+
+    /**
+     * Returns the map of return statuses.
+     * 
+     * @return A map of order ID to return status (Boolean).
+     */    
+    public HashMap<String, Boolean> getReturnMap() {
+        return returnMap;
+    }
+
+    /**
+     * Looks up an order by its ID in constant time.
+     *
+     * @param orderId The ID of the order.
+     * @return The order, or null if no such order was added.
+     */
+    public Order getOrder(String orderId) {
+        return orderIndex.get(ids.lookup(orderId));
+    }
+
+    /**
+     * Looks up the customer who placed an order in constant time.
+     *
+     * @param orderId The ID of the order.
+     * @return The customer, or null if no such order was added.
+     */
+    public Customer getCustomerOfOrder(String orderId) {
+        return orderCustomerIndex.get(ids.lookup(orderId));
+    }
+
+    /**
+     * Looks up every order line of a product.
+     *
+     * @param productId The ID of the product.
+     * @return The lines in the order they were added, empty if the product is unknown.
+     */
+    public List<LineItem> getLineItems(String productId) {
+        List<LineItem> lineItems = productIndex.get(productId);
+        return lineItems == null ? Collections.emptyList() : Collections.unmodifiableList(lineItems);
+    }
+
+    /**
+     * Returns the line items in columnar form, kept up to date as customers,
+     * orders and products are added.
+     *
+     * @return The fact table.
+     */
+    public FactTable getFactTable() {
+        return factTable;
+    }
+
+    /**
+     * Tells whether the orders keep their product lines, which is the case
+     * unless the generator was constructed with
+     * {@link #InstanceGenerator(FactTable)}.
+     *
+     * @return true if the orders hold their products.
+     */
+    public boolean retainsProducts() {
+        return retainProducts;
+    }
+
+    /**
+     * Gets the version of the data. The version changes whenever a customer,
+     * order, product line or return is added through this generator, so
+     * results computed at the same version are still up to date.
+     *
+     * @return the data version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Registers a listener for the data added from now on. The customers,
+     * orders and lines already loaded are replayed to the listener first, so
+     * it sees the same data whenever it is registered.
+     *
+     * @param listener The listener to register.
+     */
+    public void addListener(IngestionListener listener) {
+        customerMap.values().forEach(customer -> {
+            listener.customerAdded(customer);
+            customer.getOrders().values().forEach(order -> listener.orderAdded(customer, order));
+        });
+        StringDictionary customerIds = factTable.dictionary(Dimension.CUSTOMER);
+        StringDictionary orderIds = factTable.dictionary(Dimension.ORDER);
+        for (int row = 0; row < factTable.size(); row++) {
+            String customerId = customerIds.decode(factTable.code(Dimension.CUSTOMER, row));
+            String orderId = orderIds.decode(factTable.code(Dimension.ORDER, row));
+            // the customer column tells apart orders with the same ID under several customers
+            Customer customer = customerIndex.get(ids.lookup(customerId));
+            listener.lineAdded(customer, customer == null ? null : customer.getOrders().get(orderId), factTable, row);
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops delivering events to a listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(IngestionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Initializes the instance by processing each record in the information list.
+     * Adds customers and their orders to the customer map.
+     */    
+    public void initialization() {
+        infoList.forEach(this::addCustomer);
+    }
+
+    /**
+     * Initializes the instance by streaming records straight from a file.
+     * Each row is added as soon as it is parsed and dropped afterwards, so
+     * memory does not grow with the size of the file.
+     *
+     * @param processor The processor reading the data file.
+     * @throws IOException if an I/O error occurs reading from the file.
+     */
+    public void initialization(FileDataProcessor processor) throws IOException {
+        processor.processRows(this::addCustomer);
+    }
+
+    /**
+     * Processes a single data record, adding or updating a customer and their order.
+     * 
+     * @param line A string array representing a single data record.
+     * @return A string indicating the result of the operation.
+     */
+    public String addCustomer(String[] line) {
+        return addCustomer(DataRow.of(line));
+    }
+
+    /**
+     * Processes a single data record, adding or updating a customer and their order.
+     * Only the fields needed for new customers, orders or products are read.
+     * 
+     * @param line A single data record.
+     * @return A string indicating the result of the operation.
+     */
+    public String addCustomer(DataRow line) {
+        long customerKey = ids.encode(line.chars(5));
+        Customer customer = customerIndex.get(customerKey);
+        // if no such customer, add new customer
+        if (customer == null) {
+            String tempId = ids.decode(customerKey);
+            customer = new Customer();
+            customer.setCustomerId(tempId);
+            customer.setCustomerName(cache.string(line.chars(6)));
+            customer.setSegment(cache.string(line.chars(7)));
+            customerMap.put(tempId, customer);
+            customerIndex.put(customerKey, customer);
+            version++;
+            for (IngestionListener listener : listeners) {
+                listener.customerAdded(customer);
+            }
+            return "New customer:" + tempId + ":" + addOrder(customer, line);
+        }
+        return "Customer already exist:" + customer.getCustomerId() + ":" + addOrder(customer, line);
+    }
+
+    /**
+     * Adds or updates an order for a given customer based on the provided data record.
+     * 
+     * @param customer The customer object to add the order to.
+     * @param line A string array representing a single data record.
+     * @return A string indicating the result of the operation.
+     */
+    public String addOrder(Customer customer, String[] line) {
+        return addOrder(customer, DataRow.of(line));
+    }
+
+    /**
+     * Adds or updates an order for a given customer based on the provided data record.
+     * 
+     * @param customer The customer object to add the order to.
+     * @param line A single data record.
+     * @return A string indicating the result of the operation.
+     */
+    public String addOrder(Customer customer, DataRow line) {
+        long orderKey = ids.encode(line.chars(1));
+        Order order = orderIndex.get(orderKey);
+        if (order != null && orderCustomerIndex.get(orderKey) != customer) {
+            // the same order ID under another customer
+            order = customer.getOrders().get(order.getOrderId());
+        }
+        if (order == null) {
+            String tempOrderId = ids.decode(orderKey);
+            String tempCountry = cache.string(line.chars(8));
+            String tempCity = cache.string(line.chars(9));
+            String tempState = cache.string(line.chars(10));
+            String tempRegion = cache.string(line.chars(12));
+            int tempPostalCode = parseInt(line, 11);
+            Address tempAddress = cache.address(tempCountry, tempPostalCode, tempRegion, tempState, tempCity);
+            order = new Order();
+            order.setOrderId(tempOrderId);
+            order.setOrderEpochDay(decodeDate(line, 2));
+            order.setShipEpochDay(decodeDate(line, 3));
+            order.setShipMode(cache.string(line.chars(4)));
+            order.setAddress(tempAddress);
+            customer.getOrders().put(tempOrderId, order);
+            indexOrder(customer, order);
+            return "New order:" + tempOrderId + ":" + addProduct(order, line);
+        }
+        return "Order already exist:" + order.getOrderId() + ":" + addProduct(order, line);
+    }
+
+    /**
+     * Adds or updates a product within an order based on the provided data record.
+     * 
+     * @param order The order object to add the product to.
+     * @param line A string array representing a single data record.
+     * @return A string indicating the result of the operation.
+     */    
+    public String addProduct(Order order, String[] line) {
+        return addProduct(order, DataRow.of(line));
+    }
+
+    /**
+     * Adds or updates a product within an order based on the provided data record.
+     * 
+     * @param order The order object to add the product to.
+     * @param line A single data record.
+     * @return A string indicating the result of the operation.
+     */    
+    public String addProduct(Order order, DataRow line) {
+        String tempProductId = cache.string(line.chars(13));
+        Product product = order.getProducts().get(tempProductId);
+        if (product == null && !hasLine(order, tempProductId)) {
+            CategoryInfo tempCategoryInfo = cache.category(cache.string(line.chars(14)), cache.string(line.chars(15)));
+            product = new Product();
+            product.setProductId(tempProductId);
+            product.setCategory(tempCategoryInfo);
+            product.setProductName(cache.string(line.chars(16)));
+            product.setSales(parseDouble(line, 17));
+            product.setQuantity(parseInt(line, 18));
+            product.setDiscount(parseDouble(line, 19));
+            product.setProfit(parseDouble(line, 20));
+            if (retainProducts) {
+                order.getProducts().put(tempProductId, product);
+            }
+            indexProduct(order, product);
+            return "New product:" + tempProductId;
+        } else {
+            return "Product already exist:" + tempProductId;
+        }
+    }
+
+    // registers a new order and applies a return that was loaded before it
+    private void indexOrder(Customer customer, Order order) {
+        indexOrder(customer, order, null);
+    }
+
+    // with a map of accepted lines, the products are recorded there and
+    // indexed later in the order of the lines of a partial generator
+    private void indexOrder(Customer customer, Order order, IdentityHashMap<Product, Order> accepted) {
+        long orderKey = ids.encode(order.getOrderId());
+        orderIndex.put(orderKey, order);
+        orderCustomerIndex.put(orderKey, customer);
+        version++;
+        for (IngestionListener listener : listeners) {
+            listener.orderAdded(customer, order);
+        }
+        if (accepted != null) {
+            order.getProducts().values().forEach(p -> accepted.put(p, order));
+        } else {
+            order.getProducts().values().forEach(p -> indexProduct(order, p));
+            if (!retainProducts) {
+                order.getProducts().clear();
+            }
+        }
+        if (returnMap != null) {
+            Boolean returned = returnMap.get(order.getOrderId());
+            if (returned != null) {
+                order.setIsReturn(returned);
+            }
+        }
+    }
+
+    // replaces the address and categories of an order taken over from another
+    // generator by the instances shared in this one
+    private void share(Order order) {
+        order.setAddress(cache.address(order.getAddress()));
+        order.getProducts().values().forEach(p -> p.setCategory(cache.category(p.getCategory())));
+    }
+
+    private void indexProduct(Order order, Product product) {
+        if (pendingLines != null) {
+            pendingLines.add(product);
+            return;
+        }
+        if (retainProducts) {
+            productIndex.computeIfAbsent(product.getProductId(), id -> new ArrayList<>(2))
+                    .add(new LineItem(order, product));
+        }
+        Customer customer = orderCustomerIndex.get(ids.lookup(order.getOrderId()));
+        int row = factTable.add(customer, order, product);
+        version++;
+        for (IngestionListener listener : listeners) {
+            listener.lineAdded(customer, order, factTable, row);
+        }
+        if (!retainProducts) {
+            lineRows.put(lineKey(order, product.getProductId()), row);
+        }
+    }
+
+    // whether a line only stored in the fact table exists
+    private boolean hasLine(Order order, String productId) {
+        return !retainProducts && lineRows.containsKey(lineKey(order, productId));
+    }
+
+    private long lineKey(Order order, String productId) {
+        int orderCode = factTable.dictionary(Dimension.ORDER).encode(order.getOrderId());
+        int productCode = factTable.dictionary(Dimension.PRODUCT).encode(productId);
+        return (long) orderCode << 32 | productCode;
+    }
+
+    private int decodeDate(DataRow line, int index) {
+        int epochDay = dateDecoder.decode(line.chars(index));
+        if (epochDay == DateDecoder.NO_DATE) {
+            System.err.println("Error parsing date: " + line.get(index));
+        }
+        return epochDay;
+    }
+
+    private static double parseDouble(DataRow line, int index) {
+        double value = line.getDouble(index);
+        if (Double.isNaN(value)) {
+            throw new NumberFormatException("Invalid number in column " + index + ": " + line.get(index));
+        }
+        return value;
+    }
+
+    private static int parseInt(DataRow line, int index) {
+        int value = line.getInt(index);
+        if (value == DecimalParser.INVALID_INT) {
+            throw new NumberFormatException("Invalid integer in column " + index + ": " + line.get(index));
+        }
+        return value;
+    }
+
+    /**
+     * Merges the customers, orders, products and returns of another generator
+     * into this one. Entries that already exist here are kept, so merging
+     * partial results in file order gives the same data as adding all records
+     * to one generator. The other generator must not be used afterwards, its
+     * objects are moved rather than copied, with their addresses and
+     * categories replaced by the instances shared in this generator.
+     * <p>
+     * The lines of a {@link #partial()} generator are appended to the fact
+     * table in the order they were parsed, after all of its customers and
+     * orders are merged, so merging partial generators in file order keeps
+     * the lines in file order too.
+     * 
+     * @param other The generator to merge into this one.
+     */
+    public void merge(InstanceGenerator other) {
+        // lines of a partial generator, by the product taken over to the
+        // order it now belongs to; null when lines are indexed right away
+        IdentityHashMap<Product, Order> accepted = other.pendingLines != null ? new IdentityHashMap<>() : null;
+        // returns first, so orders taken over below pick up every flag
+        other.returnMap.forEach((orderId, returned) -> {
+            if (returnMap.putIfAbsent(orderId, returned) == null) {
+                applyReturn(orderId, returned);
+            }
+        });
+        other.customerMap.forEach((id, customer) -> {
+            Customer existing = customerMap.putIfAbsent(id, customer);
+            if (existing == null) {
+                customerIndex.put(ids.encode(id), customer);
+                version++;
+                for (IngestionListener listener : listeners) {
+                    listener.customerAdded(customer);
+                }
+                customer.getOrders().values().forEach(o -> {
+                    share(o);
+                    indexOrder(customer, o, accepted);
+                });
+            } else {
+                customer.getOrders().forEach((orderId, order) -> {
+                    Order existingOrder = existing.getOrders().putIfAbsent(orderId, order);
+                    if (existingOrder == null) {
+                        share(order);
+                        indexOrder(existing, order, accepted);
+                    } else {
+                        order.getProducts().forEach((productId, product) -> {
+                            boolean added = retainProducts
+                                    ? existingOrder.getProducts().putIfAbsent(productId, product) == null
+                                    : !hasLine(existingOrder, productId);
+                            if (added) {
+                                product.setCategory(cache.category(product.getCategory()));
+                                if (accepted != null) {
+                                    accepted.put(product, existingOrder);
+                                } else {
+                                    indexProduct(existingOrder, product);
+                                }
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        if (accepted != null) {
+            for (Product product : other.pendingLines) {
+                Order order = accepted.get(product);
+                if (order != null) {
+                    indexProduct(order, product);
+                }
+            }
+            if (!retainProducts) {
+                accepted.values().forEach(order -> order.getProducts().clear());
+            }
+        }
+    }
+
+    /**
+     * Sets the return map based on a list of return records.
+     * Orders that are already loaded are flagged right away, orders added
+     * later are flagged when they are added.
+     * 
+     * @param returnList A list of string arrays representing return records.
+     */
+    public void setReturnMap(List<String[]> returnList) {
+        returnList.forEach(this::addReturn);
+    }
+
+    /**
+     * Sets the return map by streaming the records of a returns file.
+     *
+     * @param processor The processor reading the returns file.
+     * @throws IOException if an I/O error occurs reading from the file.
+     */
+    public void setReturnMap(FileDataProcessor processor) throws IOException {
+        processor.processRows(this::addReturn);
+    }
+
+    /**
+     * Processes a single return record and flags its order if it is loaded.
+     *
+     * @param line A string array representing a single return record.
+     */
+    public void addReturn(String[] line) {
+        addReturn(DataRow.of(line));
+    }
+
+    /**
+     * Processes a single return record and flags its order if it is loaded.
+     *
+     * @param line A single return record.
+     */
+    public void addReturn(DataRow line) {
+        if (line.get(0).equals("Yes")) {
+            String orderId = line.get(1);
+            this.returnMap.put(orderId, true);
+            applyReturn(orderId, true);
+        }
+    }
+
+    private void applyReturn(String orderId, boolean returned) {
+        Order order = orderIndex.get(ids.lookup(orderId));
+        if (order != null && order.getIsReturn() != returned) {
+            order.setIsReturn(returned);
+            version++;
+        }
+    }
+
+    /**
+     * Updates the return status of orders based on the return map.
+     * Each return is looked up in the order index, so the cost depends on the
+     * number of returns only.
+     */    
+    public void setOrderReturn() {
+        if (returnMap != null) {
+            returnMap.forEach(this::applyReturn);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package SuperStore;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from int keys to long values, without boxing.
+ * <p>
+ * Keys and values are kept in parallel primitive arrays, so adding to an
+ * existing key allocates nothing and only growing the table creates garbage.
+ * Absent keys read as {@code 0}. Any int is a valid key.
+ */
+public class IntLongMap {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    public IntLongMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructs an empty map that holds the given number of keys without
+     * growing.
+     *
+     * @param expectedSize the expected number of keys.
+     */
+    public IntLongMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity *= 2;
+        }
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key.
+     * @return the value, or 0 if the key is absent.
+     */
+    public long get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key          the key.
+     * @param defaultValue the value to return if the key is absent.
+     * @return the value, or defaultValue if the key is absent.
+     */
+    public long getOrDefault(int key, long defaultValue) {
+        int slot = find(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     *
+     * @param key the key.
+     * @return true if the map contains the key.
+     */
+    public boolean containsKey(int key) {
+        return used[find(key)];
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key.
+     * @param value the new value.
+     */
+    public void put(int key, long value) {
+        int slot = find(key);
+        values[slot] = value;
+        if (!used[slot]) {
+            insert(slot, key);
+        }
+    }
+
+    /**
+     * Adds to the value of a key, an absent key starts at 0.
+     *
+     * @param key   the key.
+     * @param delta the amount to add.
+     * @return the new value.
+     */
+    public long addTo(int key, long delta) {
+        int slot = find(key);
+        if (used[slot]) {
+            return values[slot] += delta;
+        }
+        values[slot] = delta;
+        insert(slot, key);
+        return delta;
+    }
+
+    /**
+     * Gets the number of keys in the map.
+     *
+     * @return the map size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every key, keeping the table for reuse.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Hands every entry to the consumer, in no particular order.
+     *
+     * @param consumer receives each key and its value.
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Receives the entries of a IntLongMap.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+
+    // the slot holding the key, or the free slot where it belongs
+    private int find(int key) {
+        int mask = used.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void insert(int slot, int key) {
+        keys[slot] = key;
+        used[slot] = true;
+        if (++size * 2 > used.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        used = new boolean[oldUsed.length * 2];
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+}
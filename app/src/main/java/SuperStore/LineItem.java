@@ -0,0 +1,12 @@
+package SuperStore;
+/**
+ * Represents one product line of an order.
+ * <p>
+ * This record links a product entry to the order it belongs to, it is used
+ * by the product index of {@link InstanceGenerator}.
+ *
+ * @param order The order containing the line.
+ * @param product The product entry of the line.
+ */
+public record LineItem(Order order, Product product) {
+}
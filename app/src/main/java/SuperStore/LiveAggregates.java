@@ -0,0 +1,247 @@
+package SuperStore;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/**
+ * Keeps the headline totals of an {@link InstanceGenerator} up to date while
+ * data is added, instead of scanning the customers for every statistic.
+ * <p>
+ * The registry listens to the generator and adds every new customer, order
+ * and line to its running totals: sales, quantity, profit, the number of
+ * customers, orders and lines, the sales per customer, region, state and
+ * year with the best customer, and the number of customers per segment.
+ * Reading a total, or the total of one customer, region, state, year or
+ * segment, takes constant time. Keys are kept as dictionary codes as in
+ * {@link CustomerMapUtils}, so adding a line allocates nothing once its
+ * keys are known.
+ * <p>
+ * Like the generator, the registry is meant to be used from the thread
+ * adding the data.
+ */
+public class LiveAggregates implements IngestionListener {
+    private static final int NULL_CODE = -1;
+
+    private long customers;
+    private long orders;
+    private long lines;
+    private double sales;
+    private long quantity;
+    private double profit;
+    private final EnumMap<Dimension, Sums> salesBy = new EnumMap<>(Dimension.class);
+    private final IntDoubleMap salesPerYear = new IntDoubleMap();
+    private final Sums customersPerSegment = new Sums();
+    private String bestCustomerId;
+    private double bestCustomerSales;
+
+    /**
+     * Constructs a LiveAggregates that is updated by a generator, starting
+     * with the data the generator already holds.
+     *
+     * @param generator the generator to listen to.
+     */
+    public LiveAggregates(final InstanceGenerator generator) {
+        salesBy.put(Dimension.CUSTOMER, new Sums());
+        salesBy.put(Dimension.REGION, new Sums());
+        salesBy.put(Dimension.STATE, new Sums());
+        generator.addListener(this);
+    }
+
+    @Override
+    public void customerAdded(Customer customer) {
+        customers++;
+        customersPerSegment.add(customer.getSegment(), 1);
+    }
+
+    @Override
+    public void orderAdded(Customer customer, Order order) {
+        orders++;
+    }
+
+    @Override
+    public void lineAdded(Customer customer, Order order, FactTable facts, int row) {
+        double lineSales = facts.sales(row);
+        lines++;
+        sales += lineSales;
+        quantity += facts.quantity(row);
+        profit += facts.profit(row);
+        if (customer != null) {
+            // sales only grow, so the best customer can only be overtaken
+            double customerSales = salesBy.get(Dimension.CUSTOMER).add(customer.getCustomerId(), lineSales);
+            if (bestCustomerId == null || customerSales > bestCustomerSales) {
+                bestCustomerId = customer.getCustomerId();
+                bestCustomerSales = customerSales;
+            }
+        }
+        Address address = order == null ? null : order.getAddress();
+        salesBy.get(Dimension.REGION).add(address == null ? null : address.getRegion(), lineSales);
+        salesBy.get(Dimension.STATE).add(address == null ? null : address.getState(), lineSales);
+        if (facts.orderEpochDay(row) != DateDecoder.NO_DATE) {
+            salesPerYear.addTo(DateDecoder.year(facts.orderEpochDay(row)), lineSales);
+        }
+    }
+
+    /**
+     * Gets the number of customers.
+     *
+     * @return the customer count.
+     */
+    public long getCustomerCount() {
+        return customers;
+    }
+
+    /**
+     * Gets the number of orders.
+     *
+     * @return the order count.
+     */
+    public long getOrderCount() {
+        return orders;
+    }
+
+    /**
+     * Gets the number of product lines.
+     *
+     * @return the line count.
+     */
+    public long getProductCount() {
+        return lines;
+    }
+
+    /**
+     * Gets the sum of the sales of every product line.
+     *
+     * @return the total sales amount.
+     */
+    public double getTotalSales() {
+        return sales;
+    }
+
+    /**
+     * Gets the average sales amount of an order.
+     *
+     * @return the total sales divided by the number of orders, 0 if there are
+     *         no orders.
+     */
+    public double getAverageSalesPerOrder() {
+        return orders == 0 ? 0 : sales / orders;
+    }
+
+    /**
+     * Gets the sum of the quantities of every product line.
+     *
+     * @return the total quantity.
+     */
+    public long getTotalQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Gets the sum of the profits of every product line.
+     *
+     * @return the total profit.
+     */
+    public double getTotalProfit() {
+        return profit;
+    }
+
+    /**
+     * Gets the ID of the customer with the highest total sales.
+     *
+     * @return the customer ID, or null if no line was added.
+     */
+    public String getBestCustomerId() {
+        return bestCustomerId;
+    }
+
+    /**
+     * Gets the total sales of one value of a dimension.
+     *
+     * @param dimension {@link Dimension#CUSTOMER}, {@link Dimension#REGION},
+     *                  {@link Dimension#STATE} or {@link Dimension#YEAR}.
+     * @param value     the customer ID, region, state or year, such as "2016".
+     * @return the sales amount, 0 for unknown values.
+     * @throws IllegalArgumentException if the dimension is not kept.
+     */
+    public double getSales(Dimension dimension, String value) {
+        if (dimension == Dimension.YEAR) {
+            try {
+                return salesPerYear.getOrDefault(Integer.parseInt(value), 0);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return sums(dimension).get(value);
+    }
+
+    /**
+     * Gets the total sales of every value of a dimension.
+     *
+     * @param dimension {@link Dimension#CUSTOMER}, {@link Dimension#REGION},
+     *                  {@link Dimension#STATE} or {@link Dimension#YEAR}.
+     * @return a map of values to their sales amount.
+     * @throws IllegalArgumentException if the dimension is not kept.
+     */
+    public HashMap<String, Double> getSalesPer(Dimension dimension) {
+        if (dimension == Dimension.YEAR) {
+            HashMap<String, Double> map = new HashMap<>();
+            salesPerYear.forEach((year, value) -> map.put(Integer.toString(year), value));
+            return map;
+        }
+        return sums(dimension).toMap();
+    }
+
+    /**
+     * Gets the number of customers of a segment.
+     *
+     * @param segment the segment, such as "Consumer".
+     * @return the customer count, 0 for unknown segments.
+     */
+    public long getCustomerCount(String segment) {
+        return (long) customersPerSegment.get(segment);
+    }
+
+    /**
+     * Gets the number of customers of every segment.
+     *
+     * @return a map of segments to their customer count.
+     */
+    public HashMap<String, Integer> getCustomersPerSegment() {
+        HashMap<String, Integer> map = new HashMap<>();
+        customersPerSegment.toMap().forEach((segment, count) -> map.put(segment, count.intValue()));
+        return map;
+    }
+
+    private Sums sums(Dimension dimension) {
+        Sums sums = salesBy.get(dimension);
+        if (sums == null) {
+            throw new IllegalArgumentException(dimension + " is not kept");
+        }
+        return sums;
+    }
+
+    /**
+     * Running sums keyed by string, stored by dictionary code. Missing
+     * values are not counted.
+     */
+    private static final class Sums {
+        private final StringDictionary keys = new StringDictionary();
+        private final IntDoubleMap values = new IntDoubleMap();
+
+        // returns the new sum of the key
+        double add(String key, double value) {
+            return key == null ? 0 : values.addTo(keys.encode(key), value);
+        }
+
+        double get(String key) {
+            int code = key == null ? NULL_CODE : keys.lookup(key);
+            return code == NULL_CODE ? 0 : values.getOrDefault(code, 0);
+        }
+
+        HashMap<String, Double> toMap() {
+            HashMap<String, Double> map = new HashMap<>();
+            values.forEach((code, value) -> map.put(keys.decode(code), value));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package SuperStore;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from long keys to int values, without boxing.
+ * <p>
+ * Keys and values are kept in parallel primitive arrays, so adding to an
+ * existing key allocates nothing and only growing the table creates garbage.
+ * Absent keys read as {@code 0}. Any long is a valid key.
+ */
+public class LongIntMap {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    public LongIntMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructs an empty map that holds the given number of keys without
+     * growing.
+     *
+     * @param expectedSize the expected number of keys.
+     */
+    public LongIntMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity *= 2;
+        }
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key.
+     * @return the value, or 0 if the key is absent.
+     */
+    public int get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key          the key.
+     * @param defaultValue the value to return if the key is absent.
+     * @return the value, or defaultValue if the key is absent.
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        int slot = find(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     *
+     * @param key the key.
+     * @return true if the map contains the key.
+     */
+    public boolean containsKey(long key) {
+        return used[find(key)];
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key.
+     * @param value the new value.
+     */
+    public void put(long key, int value) {
+        int slot = find(key);
+        values[slot] = value;
+        if (!used[slot]) {
+            insert(slot, key);
+        }
+    }
+
+    /**
+     * Adds to the value of a key, an absent key starts at 0.
+     *
+     * @param key   the key.
+     * @param delta the amount to add.
+     * @return the new value.
+     */
+    public int addTo(long key, int delta) {
+        int slot = find(key);
+        if (used[slot]) {
+            return values[slot] += delta;
+        }
+        values[slot] = delta;
+        insert(slot, key);
+        return delta;
+    }
+
+    /**
+     * Gets the number of keys in the map.
+     *
+     * @return the map size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every key, keeping the table for reuse.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Hands every entry to the consumer, in no particular order.
+     *
+     * @param consumer receives each key and its value.
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Receives the entries of a LongIntMap.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    // the slot holding the key, or the free slot where it belongs
+    private int find(long key) {
+        int mask = used.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private void insert(int slot, long key) {
+        keys[slot] = key;
+        used[slot] = true;
+        if (++size * 2 > used.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        used = new boolean[oldUsed.length * 2];
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package SuperStore;
+
+/**
+ * An open addressing hash map from {@code long} keys to objects, without
+ * boxing the keys. Absent keys read as {@code null}, null values are not
+ * supported.
+ *
+ * @param <V> the type of the values.
+ */
+public class LongObjectMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private Object[] values = new Object[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key.
+     * @return the value, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[find(key)];
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key.
+     * @param value the new value, not null.
+     * @return the previous value, or null if the key was absent.
+     * @throws IllegalArgumentException if value is null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        int slot = find(key);
+        V previous = (V) values[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        if (previous == null && ++size * 2 > values.length) {
+            grow();
+        }
+        return previous;
+    }
+
+    /**
+     * Gets the number of keys in the map.
+     *
+     * @return the map size.
+     */
+    public int size() {
+        return size;
+    }
+
+    // the slot holding the key, or the free slot where it belongs
+    private int find(long key) {
+        int mask = values.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
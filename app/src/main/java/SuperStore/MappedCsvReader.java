@@ -0,0 +1,150 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads a semicolon separated file from the file system through a
+ * memory-mapped {@link FileChannel}.
+ * The mapped bytes are scanned for {@code ;} and {@code \n} directly by a
+ * {@link CsvTokenizer}, fields are only decoded into strings when they are read.
+ * Files larger than one mapping window are read window by window, a window
+ * always starts at the beginning of a line.
+ */
+public class MappedCsvReader {
+    private static final int DEFAULT_WINDOW_SIZE = Integer.MAX_VALUE;
+
+    private final Path path;
+    private final int windowSize;
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+    private long consumedBytes;
+
+    /**
+     * Constructs a MappedCsvReader for the specified file.
+     *
+     * @param path the file to read.
+     */
+    public MappedCsvReader(final Path path) {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a MappedCsvReader with a custom mapping window.
+     *
+     * @param path       the file to read.
+     * @param windowSize the maximum number of bytes mapped at once.
+     * @throws IllegalArgumentException if windowSize is not positive.
+     */
+    public MappedCsvReader(final Path path, final int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize has to be positive");
+        }
+        this.path = path;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Gets the number of bytes read so far, which is the offset right after the
+     * last line handed to the consumer.
+     *
+     * @return the consumed byte count.
+     */
+    public long getConsumedBytes() {
+        return consumedBytes;
+    }
+
+    /**
+     * Reads the whole file. The first line is returned as titles, every
+     * following line is handed to the consumer.
+     *
+     * @param rowConsumer receives the fields of each data line.
+     * @return the titles of the file, or an empty array if the file is empty.
+     * @throws IOException if an I/O error occurs or a line does not fit into one
+     *                     mapping window.
+     */
+    public String[] read(final Consumer<String[]> rowConsumer) throws IOException {
+        return readRows(row -> rowConsumer.accept(row.toArray()));
+    }
+
+    /**
+     * Reads the whole file without copying the records into arrays. The first
+     * line is returned as titles, every following line is handed to the consumer
+     * as a row that is only valid during the call.
+     *
+     * @param rowConsumer receives each data line.
+     * @return the titles of the file, or an empty array if the file is empty.
+     * @throws IOException if an I/O error occurs or a line does not fit into one
+     *                     mapping window.
+     */
+    public String[] readRows(final Consumer<? super DataRow> rowConsumer) throws IOException {
+        String[][] titles = { null };
+        readRows(0, row -> {
+            if (titles[0] == null) {
+                titles[0] = row.toArray();
+            } else {
+                rowConsumer.accept(row);
+            }
+        });
+        return titles[0] == null ? new String[0] : titles[0];
+    }
+
+    /**
+     * Reads every line starting at the given byte offset, without treating any of
+     * them as titles.
+     *
+     * @param offset      the offset to start from, has to be the start of a line.
+     * @param rowConsumer receives each line as a row that is only valid during the
+     *                    call.
+     * @throws IOException if an I/O error occurs or a line does not fit into one
+     *                     mapping window.
+     */
+    public void readRows(final long offset, final Consumer<? super DataRow> rowConsumer) throws IOException {
+        readRows(offset, rowConsumer, true);
+    }
+
+    /**
+     * Reads the lines starting at the given byte offset that are terminated by a
+     * line break. A last line without a line break may still be written to and is
+     * left for a later read, {@link #getConsumedBytes()} stays at its start.
+     *
+     * @param offset      the offset to start from, has to be the start of a line.
+     * @param rowConsumer receives each line as a row that is only valid during the
+     *                    call.
+     * @throws IOException if an I/O error occurs or a line does not fit into one
+     *                     mapping window.
+     */
+    public void readCompleteRows(final long offset, final Consumer<? super DataRow> rowConsumer)
+            throws IOException {
+        readRows(offset, rowConsumer, false);
+    }
+
+    private void readRows(long offset, Consumer<? super DataRow> rowConsumer, boolean lastLineComplete)
+            throws IOException {
+        consumedBytes = offset;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = offset;
+            while (position < size) {
+                long length = Math.min(windowSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == size;
+                int start = position == 0 ? CsvTokenizer.byteOrderMarkLength(buffer, 0) : 0;
+                int read = tokenizer.forEachRecord(buffer, start, buffer.limit(), lastWindow && lastLineComplete,
+                        rowConsumer);
+                if (read == start && read < buffer.limit()) {
+                    if (lastWindow && !lastLineComplete) {
+                        break;
+                    }
+                    throw new IOException("Line at offset " + position + " does not fit into "
+                            + windowSize + " bytes: " + path);
+                }
+                position += read;
+                consumedBytes = position;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package SuperStore;
+
+/**
+ * The values summed up per group by
+ * {@link CustomerMapUtils#groupBy(FactTable, java.util.List, java.util.Set)}.
+ */
+public enum Measure {
+    /** The sum of the sales of the line items. */
+    SALES,
+    /** The sum of the profits of the line items. */
+    PROFIT,
+    /** The sum of the quantities of the line items. */
+    QUANTITY,
+    /** The number of distinct orders with a line item in the group. */
+    ORDERS,
+    /** The number of distinct customers with a line item in the group. */
+    CUSTOMERS,
+    /**
+     * The number of distinct customers with a line item in the group,
+     * estimated by a {@link HyperLogLog} of at most 4 KB per group instead
+     * of counted exactly.
+     */
+    APPROX_CUSTOMERS
+}
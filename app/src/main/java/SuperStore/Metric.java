@@ -0,0 +1,31 @@
+package SuperStore;
+
+/**
+ * The dataset wide statistics computed by
+ * {@link CustomerMapUtils#aggregate(java.util.HashMap, java.util.Set)}.
+ */
+public enum Metric {
+    /** The number of customers. */
+    CUSTOMERS(0),
+    /** The number of orders. */
+    ORDERS(1),
+    /** The number of product lines. */
+    PRODUCTS(2),
+    /** The sum of the sales of every product line. */
+    TOTAL_SALES(2),
+    /** The total sales divided by the number of orders, 0 without orders. */
+    AVERAGE_SALES_PER_ORDER(2),
+    /** The sum of the quantities of every product line. */
+    TOTAL_QUANTITY(2),
+    /** The sum of the profits of every product line. */
+    TOTAL_PROFIT(2),
+    /** The customer with the highest total sales. */
+    BEST_CUSTOMER(2);
+
+    // 0 needs the customer map only, 1 every customer, 2 every product line
+    final int depth;
+
+    Metric(int depth) {
+        this.depth = depth;
+    }
+}
@@ -0,0 +1,82 @@
+package SuperStore;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The values of a set of {@link Metric}s, computed together in one pass over
+ * the customers.
+ */
+public class MetricSummary {
+    private final EnumSet<Metric> metrics;
+    private final double[] values = new double[Metric.values().length];
+    private Customer bestCustomer;
+
+    MetricSummary(Set<Metric> metrics) {
+        this.metrics = metrics.isEmpty() ? EnumSet.noneOf(Metric.class) : EnumSet.copyOf(metrics);
+    }
+
+    void set(Metric metric, double value) {
+        values[metric.ordinal()] = value;
+    }
+
+    void setBestCustomer(Customer bestCustomer) {
+        this.bestCustomer = bestCustomer;
+    }
+
+    /**
+     * Checks whether a metric was computed.
+     *
+     * @param metric the metric.
+     * @return true if the metric was requested.
+     */
+    public boolean contains(Metric metric) {
+        return metrics.contains(metric);
+    }
+
+    /**
+     * Gets the value of a numeric metric.
+     *
+     * @param metric the metric.
+     * @return the value.
+     * @throws IllegalArgumentException if the metric was not requested or is
+     *                                  {@link Metric#BEST_CUSTOMER}.
+     */
+    public double get(Metric metric) {
+        check(metric);
+        if (metric == Metric.BEST_CUSTOMER) {
+            throw new IllegalArgumentException("BEST_CUSTOMER is not numeric");
+        }
+        return values[metric.ordinal()];
+    }
+
+    /**
+     * Gets the value of a counting metric, such as the number of orders.
+     *
+     * @param metric the metric.
+     * @return the count.
+     * @throws IllegalArgumentException if the metric was not requested or is
+     *                                  not numeric.
+     */
+    public long getCount(Metric metric) {
+        return (long) get(metric);
+    }
+
+    /**
+     * Gets the customer with the highest total sales.
+     *
+     * @return the best customer, or null if there are no customers.
+     * @throws IllegalArgumentException if {@link Metric#BEST_CUSTOMER} was not
+     *                                  requested.
+     */
+    public Customer getBestCustomer() {
+        check(Metric.BEST_CUSTOMER);
+        return bestCustomer;
+    }
+
+    private void check(Metric metric) {
+        if (!metrics.contains(metric)) {
+            throw new IllegalArgumentException(metric + " was not computed");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package SuperStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales, profit, quantity and order counts of a {@link FactTable},
+ * pre-aggregated over the levels of every {@link Hierarchy}.
+ * <p>
+ * Building the cube scans the line items once per product level and keeps a
+ * cuboid for every combination of geography, time and product levels, from
+ * the grand total to city by month by sub-category. A query is answered from
+ * the smallest cuboid holding all of its dimensions and filters, by rolling
+ * up and filtering its cells, so drilling from region to state to city or
+ * from year to month never touches the line items again.
+ * <p>
+ * Orders are counted distinctly. An order has one address and one date, so
+ * its lines fall into one cell per product value of a cuboid and the counts
+ * of cells can be summed. The cube is a snapshot: line items added to the
+ * fact table afterwards are not included, and line items without an order
+ * date are left out.
+ */
+public class OlapCube {
+    private static final EnumSet<Measure> MEASURES = EnumSet.of(Measure.SALES, Measure.PROFIT, Measure.QUANTITY,
+            Measure.ORDERS);
+    private static final int GEOGRAPHY_LEVELS = Hierarchy.GEOGRAPHY.getLevels().size() + 1;
+    private static final int TIME_LEVELS = Hierarchy.TIME.getLevels().size() + 1;
+    private static final int PRODUCT_LEVELS = Hierarchy.PRODUCT.getLevels().size() + 1;
+
+    private final FactTable facts;
+    // indexed by geography, time and product level, 0 being no grouping
+    private final GroupByResult[] cuboids = new GroupByResult[GEOGRAPHY_LEVELS * TIME_LEVELS * PRODUCT_LEVELS];
+
+    private OlapCube(FactTable facts) {
+        this.facts = facts;
+    }
+
+    /**
+     * Builds the cube of the line items of a fact table.
+     *
+     * @param facts The line items, typically after
+     *              {@link InstanceGenerator#initialization(FileDataProcessor)}.
+     * @return the cube.
+     */
+    public static OlapCube build(FactTable facts) {
+        return build(facts, Parallelism.common());
+    }
+
+    /**
+     * Builds the cube of the line items of a fact table, scanning large tables
+     * on several threads.
+     *
+     * @param facts       The line items.
+     * @param parallelism The threads to use for the scans.
+     * @return the cube.
+     */
+    public static OlapCube build(FactTable facts, Parallelism parallelism) {
+        OlapCube cube = new OlapCube(facts);
+        for (int product = 0; product < PRODUCT_LEVELS; product++) {
+            // finest geography and time, so every coarser cuboid is a roll-up
+            GroupByResult base = CustomerMapUtils.groupBy(facts,
+                    AggregateQuery.of(levels(GEOGRAPHY_LEVELS - 1, TIME_LEVELS - 1, product), MEASURES),
+                    parallelism);
+            for (int geography = 0; geography < GEOGRAPHY_LEVELS; geography++) {
+                for (int time = 0; time < TIME_LEVELS; time++) {
+                    cube.cuboids[index(geography, time, product)] = cube.rollUp(base,
+                            levels(geography, time, product), Map.of(), MEASURES);
+                }
+            }
+        }
+        return cube;
+    }
+
+    /**
+     * Answers a query from the cube. The query may group by and filter on the
+     * levels of every hierarchy in any combination, for example the sales
+     * per state of the year 2016 in the "West" region.
+     *
+     * @param query The query.
+     * @return The groups and their measures.
+     * @throws IllegalArgumentException if the query uses a dimension in no
+     *                                  hierarchy or the customer count.
+     */
+    public GroupByResult query(AggregateQuery query) {
+        if (!MEASURES.containsAll(query.measures())) {
+            throw new IllegalArgumentException("Customers are not counted in the cube");
+        }
+        int[] depth = new int[Hierarchy.values().length];
+        List<Dimension> used = new ArrayList<>(query.dimensions());
+        used.addAll(query.filters().keySet());
+        for (Dimension dimension : used) {
+            Hierarchy hierarchy = Hierarchy.of(dimension);
+            if (hierarchy == null) {
+                throw new IllegalArgumentException(dimension + " is in no hierarchy");
+            }
+            depth[hierarchy.ordinal()] = Math.max(depth[hierarchy.ordinal()],
+                    hierarchy.getLevels().indexOf(dimension) + 1);
+        }
+        GroupByResult cuboid = cuboids[index(depth[Hierarchy.GEOGRAPHY.ordinal()],
+                depth[Hierarchy.TIME.ordinal()], depth[Hierarchy.PRODUCT.ordinal()])];
+        EnumSet<Measure> measures = query.measures().isEmpty() ? EnumSet.noneOf(Measure.class)
+                : EnumSet.copyOf(query.measures());
+        return rollUp(cuboid, query.dimensions(), query.filters(), measures);
+    }
+
+    /**
+     * Gets the number of cells of every cuboid together.
+     *
+     * @return the cell count.
+     */
+    public int getCellCount() {
+        int cells = 0;
+        for (GroupByResult cuboid : cuboids) {
+            cells += cuboid.size();
+        }
+        return cells;
+    }
+
+    private static int index(int geography, int time, int product) {
+        return (geography * TIME_LEVELS + time) * PRODUCT_LEVELS + product;
+    }
+
+    private static List<Dimension> levels(int geography, int time, int product) {
+        List<Dimension> dimensions = new ArrayList<>(Hierarchy.GEOGRAPHY.getLevels().subList(0, geography));
+        dimensions.addAll(Hierarchy.TIME.getLevels().subList(0, time));
+        dimensions.addAll(Hierarchy.PRODUCT.getLevels().subList(0, product));
+        return dimensions;
+    }
+
+    /**
+     * Sums the cells of a cuboid with the filtered values into groups of
+     * fewer dimensions.
+     */
+    private GroupByResult rollUp(GroupByResult source, List<Dimension> dimensions, Map<Dimension, String> filters,
+            EnumSet<Measure> measures) {
+        List<Dimension> groupDimensions = new ArrayList<>(dimensions);
+        GroupKeyEncoder encoder = new GroupKeyEncoder(facts, groupDimensions);
+        int[] sourceIndexes = new int[groupDimensions.size()];
+        for (int i = 0; i < sourceIndexes.length; i++) {
+            sourceIndexes[i] = source.getDimensions().indexOf(groupDimensions.get(i));
+        }
+        int[] filterIndexes = new int[filters.size()];
+        int[] filterCodes = new int[filters.size()];
+        int cells = source.size();
+        int filter = 0;
+        for (Map.Entry<Dimension, String> entry : filters.entrySet()) {
+            filterIndexes[filter] = source.getDimensions().indexOf(entry.getKey());
+            filterCodes[filter] = facts.dictionary(entry.getKey()).lookup(entry.getValue());
+            if (filterCodes[filter++] == FactTable.NO_CODE) {
+                // no line item has the value
+                cells = 0;
+            }
+        }
+
+        LongIntMap groups = new LongIntMap();
+        long[] keys = new long[cells];
+        double[][] values = new double[Measure.values().length][];
+        for (Measure measure : measures) {
+            values[measure.ordinal()] = new double[cells];
+        }
+        int[] codes = new int[sourceIndexes.length];
+        int groupCount = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (!matches(source, cell, filterIndexes, filterCodes)) {
+                continue;
+            }
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = source.code(cell, sourceIndexes[i]);
+            }
+            long key = encoder.encode(codes);
+            int group = groups.getOrDefault(key, -1);
+            if (group < 0) {
+                group = groupCount++;
+                groups.put(key, group);
+                keys[group] = key;
+            }
+            for (Measure measure : measures) {
+                values[measure.ordinal()][group] += source.get(cell, measure);
+            }
+        }
+        for (Measure measure : measures) {
+            values[measure.ordinal()] = Arrays.copyOf(values[measure.ordinal()], groupCount);
+        }
+        return new GroupByResult(facts, groupDimensions, encoder, measures, Arrays.copyOf(keys, groupCount),
+                values);
+    }
+
+    private static boolean matches(GroupByResult source, int cell, int[] filterIndexes, int[] filterCodes) {
+        for (int i = 0; i < filterIndexes.length; i++) {
+            if (source.code(cell, filterIndexes[i]) != filterCodes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,22 +1,20 @@
 package SuperStore;
 
-import javafx.beans.property.*;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableMap;
-import javafx.util.converter.LocalDateStringConverter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.Map;
 
 public class Order {
-    private final SimpleStringProperty orderId = new SimpleStringProperty(this, "orderId");
-    private final ObjectProperty<LocalDate> orderDate = new SimpleObjectProperty<>(this, "orderDate");
-    private final ObjectProperty<LocalDate> shipDate = new SimpleObjectProperty<>(this, "shipDate");
-    private final ObjectProperty<Address> address = new SimpleObjectProperty<>(this, "address");
-    private final SimpleStringProperty shipMode = new SimpleStringProperty(this, "shipMode");
-    private final ObservableMap<String, Product> products = FXCollections.observableHashMap();
-    private final SimpleBooleanProperty isReturn = new SimpleBooleanProperty(this, "isReturn");
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private String orderId;
+    // epoch days, decoded once while loading
+    private int orderDate = DateDecoder.NO_DATE;
+    private int shipDate = DateDecoder.NO_DATE;
+    private Address address;
+    private String shipMode;
+    private final HashMap<String, Product> products = new HashMap<>();
+    private boolean isReturn;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
 
     // Constructors
     public Order() {
@@ -33,68 +31,76 @@ public class Order {
         setProducts(products);
     }
 
-    public StringProperty orderIdProperty() {
+    public String getOrderId() {
         return orderId;
     }
 
-    public String getOrderId() {
-        return orderId.get();
+    public String getOrderDate() {
+        return orderDate == DateDecoder.NO_DATE ? null : getOrderLocalDate().format(FORMATTER);
     }
 
-    public StringProperty orderDateProperty() {
-        StringProperty stringProperty = new SimpleStringProperty();
-        stringProperty.bindBidirectional(orderDate, new LocalDateStringConverter());
-        return stringProperty;
+    public LocalDate getOrderLocalDate() {
+        return orderDate == DateDecoder.NO_DATE ? null : LocalDate.ofEpochDay(orderDate);
     }
 
-    public String getOrderDate() {
-        return orderDate.get().format(formatter);
+    public int getOrderEpochDay() {
+        return orderDate;
     }
 
-    public StringProperty shipDateProperty() {
-        StringProperty stringProperty = new SimpleStringProperty();
-        stringProperty.bindBidirectional(shipDate, new LocalDateStringConverter());
-        return stringProperty;
+    public String getShipDate() {
+        return shipDate == DateDecoder.NO_DATE ? null : getShipLocalDate().format(FORMATTER);
     }
 
-    public String getShipDate() {
-        return shipDate.get().format(formatter);
+    public LocalDate getShipLocalDate() {
+        return shipDate == DateDecoder.NO_DATE ? null : LocalDate.ofEpochDay(shipDate);
+    }
+
+    public int getShipEpochDay() {
+        return shipDate;
     }
 
     public Address getAddress() {
-        return address.get();
+        return address;
     }
 
     public String getShipMode() {
-        return shipMode.get();
+        return shipMode;
     }
 
-    public ObservableMap<String, Product> getProducts() {
+    public Map<String, Product> getProducts() {
         return products;
     }
 
     public boolean getIsReturn() {
-        return isReturn.get();
+        return isReturn;
     }
 
     public void setOrderId(String orderId) {
-        this.orderId.set(orderId);
+        this.orderId = orderId;
     }
 
     public void setOrderDate(LocalDate orderDate) {
-        this.orderDate.set(orderDate);
+        this.orderDate = orderDate == null ? DateDecoder.NO_DATE : (int) orderDate.toEpochDay();
+    }
+
+    public void setOrderEpochDay(int orderDate) {
+        this.orderDate = orderDate;
     }
 
     public void setShipDate(LocalDate shipDate) {
-        this.shipDate.set(shipDate);
+        this.shipDate = shipDate == null ? DateDecoder.NO_DATE : (int) shipDate.toEpochDay();
+    }
+
+    public void setShipEpochDay(int shipDate) {
+        this.shipDate = shipDate;
     }
 
     public void setAddress(Address address) {
-        this.address.set(address);
+        this.address = address;
     }
 
     public void setShipMode(String shipMode) {
-        this.shipMode.set(shipMode);
+        this.shipMode = shipMode;
     }
 
     public void setProducts(HashMap<String, Product> products) {
@@ -107,18 +113,18 @@ public class Order {
     }
 
     public void setIsReturn(boolean isReturn) {
-        this.isReturn.set(isReturn);
+        this.isReturn = isReturn;
     }
 
     @Override
     public String toString() {
-        return "Order ID: " + orderId.get() +
-                "\nOrder Date: " + orderDate.get() +
-                "\nShip Date: " + shipDate.get() +
-                "\nAddress: " + address.get() +
-                "\nShip Mode: " + shipMode.get() +
+        return "Order ID: " + orderId +
+                "\nOrder Date: " + getOrderLocalDate() +
+                "\nShip Date: " + getShipLocalDate() +
+                "\nAddress: " + address +
+                "\nShip Mode: " + shipMode +
                 "\nProducts: " + products.size() +
-                "\nReturn: " + isReturn.get();
+                "\nReturn: " + isReturn;
     }
 
     public void addProduct(Product product) {
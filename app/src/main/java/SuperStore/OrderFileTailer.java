@@ -0,0 +1,171 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Follows an orders file that grows by appended rows.
+ * <p>
+ * The tailer remembers the byte offset up to which the file has been consumed.
+ * Each {@link #poll()} parses only the complete lines appended after that
+ * offset and adds them to a live {@link InstanceGenerator}, so the cost of a
+ * refresh depends on the appended rows only. {@link #start()} polls whenever a
+ * {@link WatchService} reports the file as modified.
+ * <p>
+ * Rows are applied through an {@link Executor}, which lets a UI apply them on
+ * its own thread. Adding a row twice has no effect, so starting from an offset
+ * that is slightly too small is harmless.
+ */
+public class OrderFileTailer implements AutoCloseable {
+    private final Path file;
+    private final InstanceGenerator target;
+    private final Executor applyExecutor;
+    private final Runnable onUpdate;
+    private final MappedCsvReader reader;
+    private long offset;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * Constructs an OrderFileTailer applying rows on the polling thread.
+     *
+     * @param file   the orders file to follow.
+     * @param target the generator receiving the appended rows.
+     * @param offset the number of bytes already loaded into target.
+     */
+    public OrderFileTailer(final Path file, final InstanceGenerator target, final long offset) {
+        this(file, target, offset, Runnable::run, () -> { });
+    }
+
+    /**
+     * Constructs an OrderFileTailer.
+     *
+     * @param file          the orders file to follow.
+     * @param target        the generator receiving the appended rows.
+     * @param offset        the number of bytes already loaded into target.
+     * @param applyExecutor runs the task adding a batch of rows to target.
+     * @param onUpdate      called by the apply task after a batch was added.
+     */
+    public OrderFileTailer(final Path file, final InstanceGenerator target, final long offset,
+            final Executor applyExecutor, final Runnable onUpdate) {
+        this.file = file;
+        this.target = target;
+        this.offset = offset;
+        this.applyExecutor = applyExecutor;
+        this.onUpdate = onUpdate;
+        this.reader = new MappedCsvReader(file);
+    }
+
+    /**
+     * Gets the offset up to which the file has been consumed.
+     *
+     * @return the consumed byte count.
+     */
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Reads the complete lines appended since the last poll and applies them.
+     * A last line that is not yet terminated by a line break is left for the
+     * next poll.
+     *
+     * @return the number of rows read.
+     * @throws IOException if an I/O error occurs or the file became shorter than
+     *                     the consumed offset.
+     */
+    public synchronized int poll() throws IOException {
+        long size = Files.size(file);
+        if (size < offset) {
+            throw new IOException("File was truncated: " + file);
+        }
+        if (size == offset) {
+            return 0;
+        }
+        List<String[]> rows = new ArrayList<>();
+        // a file read from its start begins with the titles
+        boolean[] titleRow = { offset == 0 };
+        reader.readCompleteRows(offset, row -> {
+            if (titleRow[0]) {
+                titleRow[0] = false;
+            } else {
+                rows.add(row.toArray());
+            }
+        });
+        offset = reader.getConsumedBytes();
+        if (!rows.isEmpty()) {
+            applyExecutor.execute(() -> {
+                rows.forEach(target::addCustomer);
+                onUpdate.run();
+            });
+        }
+        return rows.size();
+    }
+
+    /**
+     * Starts a daemon thread polling the file whenever it is modified.
+     *
+     * @throws IOException if the directory of the file cannot be watched.
+     * @throws IllegalStateException if the tailer was already started.
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            throw new IllegalStateException("Tailer already started");
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        WatchService service = watchService;
+        watchThread = new Thread(() -> watch(service), "order-file-tailer");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    private void watch(WatchService service) {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (name.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    try {
+                        poll();
+                    } catch (IOException e) {
+                        System.err.println("Error reading appended rows: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Stops watching the file.
+     *
+     * @throws IOException if the watch service cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchThread.interrupt();
+        }
+    }
+}
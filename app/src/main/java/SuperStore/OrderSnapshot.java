@@ -0,0 +1,448 @@
+package SuperStore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the data loaded from an orders file.
+ * <p>
+ * The snapshot stores one row per product of every order in columns: string
+ * columns are dictionary encoded, numbers and dates (as epoch days) are stored
+ * as primitive arrays. It is keyed by the size, modification time and CRC32
+ * checksum of the CSV file it was built from, and is ignored once the CSV file
+ * changes. A caller that parses a file which may still grow takes the
+ * {@link CsvKey#ofCompleteRows key of its complete rows} before parsing and
+ * parses exactly the bytes it covers, so the snapshot never claims rows that
+ * were appended during the parse or only partly written.
+ * Loading maps the snapshot file once and rebuilds the customers without
+ * parsing any text. The columns end with a CRC32 checksum of their own, and
+ * a snapshot that fails it or holds inconsistent counts is not loaded.
+ */
+public class OrderSnapshot {
+    private static final int MAGIC = 0x53534E50; // "SSNP"
+    private static final int VERSION = 2;
+    private static final String SUFFIX = ".snapshot";
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    // magic, version and the size, modification time and checksum of the CSV file
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 3 * Long.BYTES;
+
+    // string columns
+    private static final int CUSTOMER_ID = 0;
+    private static final int CUSTOMER_NAME = 1;
+    private static final int SEGMENT = 2;
+    private static final int ORDER_ID = 3;
+    private static final int SHIP_MODE = 4;
+    private static final int COUNTRY = 5;
+    private static final int CITY = 6;
+    private static final int STATE = 7;
+    private static final int REGION = 8;
+    private static final int PRODUCT_ID = 9;
+    private static final int CATEGORY = 10;
+    private static final int SUB_CATEGORY = 11;
+    private static final int PRODUCT_NAME = 12;
+    private static final int STRING_COLUMNS = 13;
+
+    private final Path csvFile;
+    private final Path snapshotFile;
+
+    /**
+     * Constructs an OrderSnapshot stored next to the CSV file.
+     *
+     * @param csvFile the orders file the snapshot belongs to.
+     */
+    public OrderSnapshot(final Path csvFile) {
+        this(csvFile, csvFile.resolveSibling(csvFile.getFileName() + SUFFIX));
+    }
+
+    /**
+     * Constructs an OrderSnapshot stored at the given location.
+     *
+     * @param csvFile      the orders file the snapshot belongs to.
+     * @param snapshotFile the snapshot file.
+     */
+    public OrderSnapshot(final Path csvFile, final Path snapshotFile) {
+        this.csvFile = csvFile;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Gets the location of the snapshot file.
+     *
+     * @return the snapshot file.
+     */
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Writes the data of a generator, replacing any previous snapshot.
+     *
+     * @param source the generator holding the data of the CSV file.
+     * @throws IOException              if an I/O error occurs.
+     * @throws IllegalArgumentException if the generator does not retain its
+     *                                  products.
+     */
+    public void write(InstanceGenerator source) throws IOException {
+        write(source, CsvKey.of(csvFile));
+    }
+
+    /**
+     * Writes the data of a generator loaded from the bytes of the CSV file
+     * covered by a key, replacing any previous snapshot.
+     *
+     * @param source the generator holding the data of the CSV file.
+     * @param key    the key taken before the CSV file was parsed.
+     * @throws IOException              if an I/O error occurs.
+     * @throws IllegalArgumentException if the generator does not retain its
+     *                                  products.
+     */
+    public void write(InstanceGenerator source, CsvKey key) throws IOException {
+        if (!source.retainsProducts()) {
+            // the fact table has no product names, postal codes or ship dates
+            throw new IllegalArgumentException("Snapshots need a generator that retains its products");
+        }
+        int rows = CustomerMapUtils.calculateProductsNumber(source.getCustomerMap());
+        StringDictionary[] dictionaries = new StringDictionary[STRING_COLUMNS];
+        int[][] codes = new int[STRING_COLUMNS][rows];
+        for (int c = 0; c < STRING_COLUMNS; c++) {
+            dictionaries[c] = new StringDictionary();
+        }
+        double[] sales = new double[rows];
+        int[] quantity = new int[rows];
+        double[] discount = new double[rows];
+        double[] profit = new double[rows];
+        int[] postalCode = new int[rows];
+        int[] orderDate = new int[rows];
+        int[] shipDate = new int[rows];
+        int row = 0;
+        for (Customer customer : source.getCustomerMap().values()) {
+            for (Order order : customer.getOrders().values()) {
+                Address address = order.getAddress();
+                for (Product product : order.getProducts().values()) {
+                    String[] values = {
+                        customer.getCustomerId(), customer.getCustomerName(), customer.getSegment(),
+                        order.getOrderId(), order.getShipMode(), address.getCountry(), address.getCity(),
+                        address.getState(), address.getRegion(), product.getProductId(),
+                        product.getCategory().category(), product.getCategory().subCategory(),
+                        product.getProductName()
+                    };
+                    for (int c = 0; c < STRING_COLUMNS; c++) {
+                        codes[c][row] = dictionaries[c].encode(values[c]);
+                    }
+                    sales[row] = product.getSales();
+                    quantity[row] = product.getQuantity();
+                    discount[row] = product.getDiscount();
+                    profit[row] = product.getProfit();
+                    postalCode[row] = address.getPostalCode();
+                    orderDate[row] = order.getOrderEpochDay();
+                    shipDate[row] = order.getShipEpochDay();
+                    row++;
+                }
+            }
+        }
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+            DataOutputStream header = new DataOutputStream(file);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeLong(key.size);
+            header.writeLong(key.modified);
+            header.writeLong(key.checksum);
+            CheckedOutputStream body = new CheckedOutputStream(file, new CRC32());
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeInt(rows);
+            for (int c = 0; c < STRING_COLUMNS; c++) {
+                out.writeInt(dictionaries[c].size());
+                for (int code = 0; code < dictionaries[c].size(); code++) {
+                    byte[] bytes = dictionaries[c].decode(code).getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                writeInts(out, codes[c]);
+            }
+            writeDoubles(out, sales);
+            writeInts(out, quantity);
+            writeDoubles(out, discount);
+            writeDoubles(out, profit);
+            writeInts(out, postalCode);
+            writeInts(out, orderDate);
+            writeInts(out, shipDate);
+            header.writeLong(body.getChecksum().getValue());
+        }
+        try {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads the snapshot into a generator if it matches the current CSV file.
+     *
+     * @param target the generator receiving the data.
+     * @return true if the snapshot was loaded, false if it is missing, damaged,
+     *         of another version or built from a different CSV file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public boolean load(InstanceGenerator target) throws IOException {
+        return load(target, null);
+    }
+
+    /**
+     * Loads the snapshot into a generator if it was written with the same key.
+     *
+     * @param target the generator receiving the data.
+     * @param key    the key of the current CSV file.
+     * @return true if the snapshot was loaded, false if it is missing, damaged,
+     *         of another version or built from a different CSV file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public boolean load(InstanceGenerator target, CsvKey key) throws IOException {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE + Long.BYTES || buffer.getInt() != MAGIC
+                    || buffer.getInt() != VERSION) {
+                return false;
+            }
+            long size = buffer.getLong();
+            long modified = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (key != null ? !key.matches(size, modified, checksum)
+                    : !CsvKey.matches(csvFile, size, modified, checksum)) {
+                return false;
+            }
+            // the key covers the CSV file, the body has a checksum of its own
+            int bodyEnd = buffer.limit() - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(bodyEnd));
+            if (crc.getValue() != buffer.getLong(bodyEnd)) {
+                return false;
+            }
+            buffer.limit(bodyEnd);
+            int rows = readCount(buffer, Integer.BYTES);
+            String[][] dictionaries = new String[STRING_COLUMNS][];
+            int[][] codes = new int[STRING_COLUMNS][];
+            for (int c = 0; c < STRING_COLUMNS; c++) {
+                dictionaries[c] = new String[readCount(buffer, Integer.BYTES)];
+                for (int code = 0; code < dictionaries[c].length; code++) {
+                    byte[] bytes = new byte[readCount(buffer, 1)];
+                    buffer.get(bytes);
+                    dictionaries[c][code] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                codes[c] = readInts(buffer, rows);
+            }
+            double[] sales = readDoubles(buffer, rows);
+            int[] quantity = readInts(buffer, rows);
+            double[] discount = readDoubles(buffer, rows);
+            double[] profit = readDoubles(buffer, rows);
+            int[] postalCode = readInts(buffer, rows);
+            int[] orderDate = readInts(buffer, rows);
+            int[] shipDate = readInts(buffer, rows);
+
+            InstanceGenerator loaded = new InstanceGenerator();
+            for (int row = 0; row < rows; row++) {
+                String customerId = dictionaries[CUSTOMER_ID][codes[CUSTOMER_ID][row]];
+                Customer customer = loaded.getCustomerMap().get(customerId);
+                if (customer == null) {
+                    customer = new Customer(customerId, dictionaries[CUSTOMER_NAME][codes[CUSTOMER_NAME][row]],
+                            dictionaries[SEGMENT][codes[SEGMENT][row]]);
+                    loaded.getCustomerMap().put(customerId, customer);
+                }
+                String orderId = dictionaries[ORDER_ID][codes[ORDER_ID][row]];
+                Order order = customer.getOrders().get(orderId);
+                if (order == null) {
+                    order = new Order();
+                    order.setOrderId(orderId);
+                    order.setOrderEpochDay(orderDate[row]);
+                    order.setShipEpochDay(shipDate[row]);
+                    order.setShipMode(dictionaries[SHIP_MODE][codes[SHIP_MODE][row]]);
+                    order.setAddress(new Address(dictionaries[COUNTRY][codes[COUNTRY][row]], postalCode[row],
+                            dictionaries[REGION][codes[REGION][row]], dictionaries[STATE][codes[STATE][row]],
+                            dictionaries[CITY][codes[CITY][row]]));
+                    customer.getOrders().put(orderId, order);
+                }
+                Product product = new Product(dictionaries[PRODUCT_ID][codes[PRODUCT_ID][row]],
+                        dictionaries[PRODUCT_NAME][codes[PRODUCT_NAME][row]],
+                        new CategoryInfo(dictionaries[CATEGORY][codes[CATEGORY][row]],
+                                dictionaries[SUB_CATEGORY][codes[SUB_CATEGORY][row]]),
+                        sales[row], quantity[row], discount[row], profit[row]);
+                order.getProducts().put(product.getProductId(), product);
+            }
+            target.merge(loaded);
+            return true;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                | NegativeArraySizeException e) {
+            // truncated or corrupted snapshot
+            return false;
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    /**
+     * Reads the number of elements that follow, checking that they fit into
+     * the rest of the snapshot before anything is allocated for them.
+     *
+     * @throws BufferUnderflowException if the count is negative or too large.
+     */
+    private static int readCount(ByteBuffer buffer, int elementBytes) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / elementBytes) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        if (count > buffer.remaining() / Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static double[] readDoubles(ByteBuffer buffer, int count) {
+        if (count > buffer.remaining() / Double.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        double[] values = new double[count];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + count * Double.BYTES);
+        return values;
+    }
+
+    /**
+     * Identifies the content of a CSV file by size, modification time and
+     * checksum.
+     */
+    public static final class CsvKey {
+        private final long size;
+        private final long modified;
+        private final long checksum;
+
+        private CsvKey(long size, long modified, long checksum) {
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+
+        /**
+         * Takes the key of the current content of a CSV file.
+         *
+         * @param file the CSV file.
+         * @return the key of the first {@link #getSize()} bytes of the file.
+         * @throws IOException if an I/O error occurs.
+         */
+        public static CsvKey of(Path file) throws IOException {
+            // size and time first, bytes appended while summing are not covered
+            long size = Files.size(file);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            return new CsvKey(size, modified, checksum(file, size));
+        }
+
+        /**
+         * Takes the key of the complete rows of a CSV file. A last row that is
+         * not terminated by a line break may still be appended to, so it is left
+         * out the same way {@link MappedCsvReader#readCompleteRows} leaves it for
+         * a later read. Parsing {@link #getSize()} bytes never reads a partial
+         * row, and a tailer started at that offset reads the row once it is
+         * complete.
+         *
+         * @param file the CSV file.
+         * @return the key of the complete rows at the start of the file.
+         * @throws IOException if an I/O error occurs.
+         */
+        public static CsvKey ofCompleteRows(Path file) throws IOException {
+            long size = Files.size(file);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            CRC32 crc = new CRC32();
+            long completeSize = 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                RecordBoundaryScanner scanner = new RecordBoundaryScanner();
+                ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+                long position = 0;
+                while (position < size) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), size - position));
+                    int read = channel.read(buffer, position);
+                    if (read <= 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    int end = position == 0 ? CsvTokenizer.byteOrderMarkLength(buffer, 0) : 0;
+                    while ((end = scanner.nextRecordEnd(buffer, end, read)) >= 0) {
+                        completeSize = position + end;
+                    }
+                    crc.update(buffer);
+                    position += read;
+                }
+            }
+            if (completeSize < size) {
+                // only the bytes up to the last complete row are covered
+                return new CsvKey(completeSize, modified, checksum(file, completeSize));
+            }
+            return new CsvKey(size, modified, crc.getValue());
+        }
+
+        /**
+         * Gets the number of bytes of the CSV file the key covers.
+         *
+         * @return the size in bytes.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        private boolean matches(long size, long modified, long checksum) {
+            return this.size == size && this.modified == modified && this.checksum == checksum;
+        }
+
+        // the checksum is only computed when the cheap checks pass
+        static boolean matches(Path file, long size, long modified, long checksum) throws IOException {
+            return Files.size(file) == size && Files.getLastModifiedTime(file).toMillis() == modified
+                    && checksum(file, size) == checksum;
+        }
+
+        private static long checksum(Path file, long size) throws IOException {
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long position = 0;
+                while (position < size) {
+                    long length = Math.min(Integer.MAX_VALUE, size - position);
+                    crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+                    position += length;
+                }
+            }
+            return crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads an orders file on several threads.
+ * <p>
+ * The data part of the file is split into byte ranges that start and end at
+ * record boundaries. Every range is parsed on a {@link ForkJoinPool} into its
+ * own partial {@link InstanceGenerator}, and the calling thread merges the
+ * partial results into the target in file order while later ranges are still
+ * parsed.
+ * Since a merge keeps the customers, orders and products that were seen
+ * first, the result is the same as reading the file sequentially. Every
+ * partial result is merged once and has no fact table of its own, so each
+ * line is appended to the fact table of the target exactly once, in file
+ * order.
+ * <p>
+ * Range boundaries are found by one sequential pass over the bytes that
+ * tracks quoted fields like {@link CsvTokenizer} does, so a quoted field
+ * containing a line break stays in one range.
+ */
+public class ParallelCsvLoader {
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+    private final Path path;
+    private final int parallelism;
+    private final int chunkSize;
+    private String[] titles = new String[0];
+
+    /**
+     * Constructs a ParallelCsvLoader using every available processor.
+     *
+     * @param path the file to load.
+     */
+    public ParallelCsvLoader(final Path path) {
+        this(path, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a ParallelCsvLoader.
+     *
+     * @param path        the file to load.
+     * @param parallelism the number of threads parsing the file.
+     * @param chunkSize   the approximate number of bytes parsed by one task.
+     * @throws IllegalArgumentException if parallelism or chunkSize is not
+     *                                  positive.
+     */
+    public ParallelCsvLoader(final Path path, final int parallelism, final int chunkSize) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism has to be positive");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize has to be positive");
+        }
+        this.path = path;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Gets the titles read from the first line of the file.
+     *
+     * @return an array of titles, empty before the file is loaded.
+     */
+    public String[] getTitles() {
+        return titles;
+    }
+
+    /**
+     * Loads the file and merges its customers into the given generator.
+     *
+     * @param target the generator receiving the data.
+     * @throws IOException if an I/O error occurs reading from the file.
+     */
+    public void load(InstanceGenerator target) throws IOException {
+        load(target, Long.MAX_VALUE);
+    }
+
+    /**
+     * Loads the first bytes of the file and merges their customers into the
+     * given generator. Bytes appended to the file after them are not read.
+     *
+     * @param target the generator receiving the data.
+     * @param length the number of bytes to load, typically
+     *               {@link OrderSnapshot.CsvKey#getSize()}.
+     * @throws IOException if an I/O error occurs reading from the file.
+     */
+    public void load(InstanceGenerator target, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = splitIntoChunks(channel, Math.min(length, channel.size()));
+            if (bounds.length < 2) {
+                return;
+            }
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            List<ChunkTask> tasks = new ArrayList<>(bounds.length - 1);
+            try {
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    ChunkTask task = new ChunkTask(channel, bounds[i], bounds[i + 1]);
+                    pool.execute(task);
+                    tasks.add(task);
+                }
+                for (ChunkTask task : tasks) {
+                    target.merge(task.join());
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                tasks.forEach(task -> task.cancel(false));
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Reads the titles and computes the chunk boundaries of the data part.
+     * The data part is scanned once for the ends of its records, so a quoted
+     * field containing a line break is never split between two chunks.
+     *
+     * @return the start offsets of all chunks followed by the file size.
+     */
+    private long[] splitIntoChunks(FileChannel channel, long size) throws IOException {
+        RecordBoundaryScanner scanner = new RecordBoundaryScanner();
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        List<Long> bounds = new ArrayList<>();
+        long dataStart = -1;
+        long nextBound = 0;
+        long offset = 0;
+        while (offset < size) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), size - offset));
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            int pos = offset == 0 ? CsvTokenizer.byteOrderMarkLength(buffer, 0) : 0;
+            while ((pos = scanner.nextRecordEnd(buffer, pos, read)) >= 0) {
+                long recordEnd = offset + pos;
+                if (dataStart < 0) {
+                    dataStart = recordEnd;
+                } else if (recordEnd < nextBound || recordEnd >= size) {
+                    continue;
+                }
+                bounds.add(recordEnd);
+                nextBound = recordEnd + chunkSize;
+            }
+            offset += read;
+        }
+        readTitles(channel, dataStart < 0 ? size : dataStart);
+        if (bounds.isEmpty() || bounds.get(0) >= size) {
+            return new long[0];
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void readTitles(FileChannel channel, long titleEnd) throws IOException {
+        if (titleEnd == 0) {
+            return;
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, titleEnd);
+        int start = CsvTokenizer.byteOrderMarkLength(buffer, 0);
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        if (tokenizer.tokenize(buffer, start, buffer.limit(), true) >= 0) {
+            titles = tokenizer.toArray();
+        }
+    }
+
+    /**
+     * Parses one chunk into a partial generator.
+     */
+    private static class ChunkTask extends RecursiveTask<InstanceGenerator> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected InstanceGenerator compute() {
+            InstanceGenerator partial = InstanceGenerator.partial();
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                new CsvTokenizer().forEachRecord(buffer, 0, buffer.limit(), true, partial::addCustomer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package SuperStore;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * The number of threads an aggregation may use and the size from which it is
+ * split between them.
+ * <p>
+ * An aggregation over more rows or customers than the threshold is halved
+ * until every part is no larger than the threshold. Each part is accumulated
+ * by one worker of a {@link ForkJoinPool} into accumulators of its own, and
+ * the parts are merged pairwise in their original order. The parts depend on
+ * the size and the threshold only, not on the number of threads, so the
+ * result is the same for every level. Smaller inputs are aggregated in the
+ * calling thread, where splitting would cost more than it saves.
+ */
+public final class Parallelism {
+    /** The default number of rows or customers aggregated by one task. */
+    public static final int DEFAULT_THRESHOLD = 1 << 15;
+
+    private static final Parallelism SEQUENTIAL = new Parallelism(null, 1, DEFAULT_THRESHOLD);
+    private static final Parallelism COMMON = ForkJoinPool.getCommonPoolParallelism() > 1
+            ? new Parallelism(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), DEFAULT_THRESHOLD)
+            : SEQUENTIAL;
+
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int threshold;
+
+    private Parallelism(ForkJoinPool pool, int level, int threshold) {
+        this.pool = pool;
+        this.level = level;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gets the default parallelism, which runs on the common fork/join pool.
+     *
+     * @return the parallelism of the common pool.
+     */
+    public static Parallelism common() {
+        return COMMON;
+    }
+
+    /**
+     * Gets a parallelism that aggregates everything in the calling thread.
+     *
+     * @return the sequential parallelism.
+     */
+    public static Parallelism sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Creates a parallelism with its own pool of worker threads. The workers
+     * are daemon threads that stop when they have been idle for a while, a
+     * parallelism should still be created once and reused.
+     *
+     * @param level the number of worker threads.
+     * @return the parallelism, sequential if level is 1.
+     * @throws IllegalArgumentException if level is not positive.
+     */
+    public static Parallelism of(int level) {
+        if (level <= 0) {
+            throw new IllegalArgumentException("level has to be positive");
+        }
+        return level == 1 ? SEQUENTIAL : new Parallelism(new ForkJoinPool(level), level, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Gets a parallelism using the same threads with another threshold.
+     *
+     * @param threshold the number of rows or customers aggregated by one task.
+     * @return the parallelism with the new threshold.
+     * @throws IllegalArgumentException if threshold is not positive.
+     */
+    public Parallelism withThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold has to be positive");
+        }
+        return new Parallelism(pool, level, threshold);
+    }
+
+    /**
+     * Gets the number of threads aggregations may use.
+     *
+     * @return the parallelism level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of rows or customers aggregated by one task.
+     *
+     * @return the threshold.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Accumulates the range [0, size) in parts and merges the partial results
+     * in range order.
+     *
+     * @param size  the number of rows or customers.
+     * @param part  accumulates one part into a new partial result.
+     * @param merge merges the partial result of the following part into the
+     *              partial result of a part and returns it.
+     * @return the merged result.
+     */
+    <T> T reduce(int size, Part<T> part, BinaryOperator<T> merge) {
+        if (size <= threshold) {
+            return part.accumulate(0, size);
+        }
+        PartTask<T> task = new PartTask<>(part, merge, 0, size, pool != null);
+        return pool != null ? pool.invoke(task) : task.compute();
+    }
+
+    /**
+     * Accumulates the rows or customers of one part.
+     */
+    interface Part<T> {
+        T accumulate(int from, int to);
+    }
+
+    /**
+     * Halves a range until it is no larger than the threshold, forking the
+     * second half when running on a pool.
+     */
+    private final class PartTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final Part<T> part;
+        private final BinaryOperator<T> merge;
+        private final int from;
+        private final int to;
+        private final boolean fork;
+
+        PartTask(Part<T> part, BinaryOperator<T> merge, int from, int to, boolean fork) {
+            this.part = part;
+            this.merge = merge;
+            this.from = from;
+            this.to = to;
+            this.fork = fork;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= threshold) {
+                return part.accumulate(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            PartTask<T> left = new PartTask<>(part, merge, from, middle, fork);
+            PartTask<T> right = new PartTask<>(part, merge, middle, to, fork);
+            if (!fork) {
+                return merge.apply(left.compute(), right.compute());
+            }
+            right.fork();
+            T result = left.compute();
+            return merge.apply(result, right.join());
+        }
+    }
+}
@@ -1,26 +1,17 @@
 package SuperStore;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-
 /**
  * Represents a product with details such as ID, name, category,
  * sales, quantity, discount, and profit.
  */
 public class Product {
-    private final SimpleStringProperty productId = new SimpleStringProperty(this, "productId");
-    private final SimpleStringProperty productName = new SimpleStringProperty(this, "productName");
-    private final ObjectProperty<CategoryInfo> category = new SimpleObjectProperty<>(this, "category");
-    private final SimpleDoubleProperty sales = new SimpleDoubleProperty(this, "sales");
-    private final SimpleIntegerProperty quantity = new SimpleIntegerProperty(this, "quantity");
-    private final SimpleDoubleProperty discount = new SimpleDoubleProperty(this, "discount");
-    private final SimpleDoubleProperty profit = new SimpleDoubleProperty(this, "profit");
+    private String productId;
+    private String productName;
+    private CategoryInfo category;
+    private double sales;
+    private int quantity;
+    private double discount;
+    private double profit;
 
     /**
      * Constructs a new Product with the given details.
@@ -58,10 +49,6 @@ public class Product {
      * @return The product ID.
      */
     public String getProductId() {
-        return productId.get();
-    }
-
-    public StringProperty productIdProperty() {
         return productId;
     }
 
@@ -80,7 +67,7 @@ public class Product {
         if (productId.length() < 15) {
             throw new IllegalArgumentException("productId has to have 15 letters");
         }
-        this.productId.set(productId);
+        this.productId = productId;
     }
 
     /**
@@ -89,10 +76,6 @@ public class Product {
      * @return The name of the product.
      */
     public String getProductName() {
-        return productName.get();
-    }
-
-    public StringProperty productNameProperty() {
         return productName;
     }
 
@@ -106,7 +89,7 @@ public class Product {
         if ((productName == null) || (productName.equals(""))) {
             throw new IllegalArgumentException("productName cannot be null or empty");
         }
-        this.productName.set(productName);
+        this.productName = productName;
     }
 
     /**
@@ -115,7 +98,7 @@ public class Product {
      * @return The category information of the product.
      */
     public CategoryInfo getCategory() {
-        return category.get();
+        return category;
     }
 
     /**
@@ -128,7 +111,7 @@ public class Product {
         if (category == null) {
             throw new IllegalArgumentException("category cannot be null");
         }
-        this.category.set(category);
+        this.category = category;
     }
 
     /**
@@ -137,10 +120,6 @@ public class Product {
      * @return The sales amount.
      */
     public double getSales() {
-        return sales.get();
-    }
-
-    public DoubleProperty salesProperty() {
         return sales;
     }
 
@@ -154,7 +133,7 @@ public class Product {
         if (sales <= 0) {
             throw new IllegalArgumentException("sales cannot be lower than 0");
         }
-        this.sales.set(sales);
+        this.sales = sales;
     }
 
     /**
@@ -163,10 +142,6 @@ public class Product {
      * @return The quantity sold.
      */
     public int getQuantity() {
-        return quantity.get();
-    }
-
-    public IntegerProperty quantityProperty() {
         return quantity;
     }
 
@@ -180,7 +155,7 @@ public class Product {
         if (quantity <= 0) {
             throw new IllegalArgumentException("quantity cannot be lower than 0");
         }
-        this.quantity.set(quantity);
+        this.quantity = quantity;
     }
 
     /**
@@ -189,10 +164,6 @@ public class Product {
      * @return The discount percentage.
      */
     public double getDiscount() {
-        return discount.get();
-    }
-
-    public DoubleProperty discounProperty() {
         return discount;
     }
 
@@ -202,7 +173,7 @@ public class Product {
      * @param discount The discount percentage.
      */
     public void setDiscount(double discount) {
-        this.discount.set(discount);
+        this.discount = discount;
     }
 
     /**
@@ -211,10 +182,6 @@ public class Product {
      * @return The profit amount.
      */
     public double getProfit() {
-        return profit.get();
-    }
-
-    public DoubleProperty profitProperty() {
         return profit;
     }
 
@@ -224,7 +191,7 @@ public class Product {
      * @param profit The profit amount.
      */
     public void setProfit(double profit) {
-        this.profit.set(profit);
+        this.profit = profit;
     }
 
     @Override
@@ -0,0 +1,11 @@
+package SuperStore;
+
+/**
+ * An entry of a top-K ranking with the value it was ranked by.
+ *
+ * @param item  The ranked customer, or the ranked value of a dimension.
+ * @param value The measure the entry was ranked by, such as its sales.
+ * @param <T>   The type of the ranked item.
+ */
+public record Ranked<T>(T item, double value) {
+}
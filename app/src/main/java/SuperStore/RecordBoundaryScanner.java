@@ -0,0 +1,66 @@
+package SuperStore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds where the records of a semicolon separated file end without
+ * splitting them into fields.
+ * <p>
+ * The scanner follows the quoting rules of {@link CsvTokenizer}: a quote at
+ * the start of a field opens a quoted field, in which line breaks and
+ * delimiters are data and a doubled quote stands for one quote. A line break
+ * only ends a record outside of a quoted field. The state is kept between
+ * calls, so a file can be fed in pieces of any size, as long as the first
+ * piece starts at the beginning of a record.
+ */
+class RecordBoundaryScanner {
+    private static final byte DELIMITER = ';';
+    private static final byte QUOTE = '"';
+    private static final byte NEW_LINE = '\n';
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    // a quote inside a quoted field, the next byte decides whether it is escaped
+    private static final int QUOTE_SEEN = 3;
+
+    private int state = FIELD_START;
+
+    /**
+     * Scans forward to the end of the current record.
+     *
+     * @param buffer the buffer holding the next bytes of the input.
+     * @param start  the position of the first byte not scanned yet.
+     * @param limit  the end of the readable bytes.
+     * @return the position right after the line break ending the record, or -1
+     *         if the record does not end before limit.
+     */
+    int nextRecordEnd(ByteBuffer buffer, int start, int limit) {
+        for (int pos = start; pos < limit; pos++) {
+            byte b = buffer.get(pos);
+            if (state == QUOTED) {
+                if (b == QUOTE) {
+                    state = QUOTE_SEEN;
+                }
+                continue;
+            }
+            if (state == QUOTE_SEEN) {
+                if (b == QUOTE) {
+                    state = QUOTED;
+                    continue;
+                }
+                // the quoted field is closed, the rest of it is ignored
+                state = UNQUOTED;
+            }
+            if (b == NEW_LINE) {
+                state = FIELD_START;
+                return pos + 1;
+            }
+            if (b == DELIMITER) {
+                state = FIELD_START;
+            } else if (state == FIELD_START) {
+                state = b == QUOTE ? QUOTED : UNQUOTED;
+            }
+        }
+        return -1;
+    }
+}
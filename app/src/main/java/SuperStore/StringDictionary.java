@@ -0,0 +1,66 @@
+package SuperStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Assigns dense integer codes to strings.
+ * The first distinct string gets code 0, the next one code 1 and so on, so a
+ * code can be used as an index into arrays sized by {@link #size()}.
+ */
+public class StringDictionary {
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Gets the code of a string, adding the string if it is new.
+     *
+     * @param value the string to encode.
+     * @return the code of the string.
+     * @throws IllegalArgumentException if value is null.
+     */
+    public int encode(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Gets the code of a string without adding it.
+     *
+     * @param value the string to look up.
+     * @return the code of the string, or -1 if it is not in the dictionary.
+     */
+    public int lookup(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Gets the string of a code.
+     *
+     * @param code the code to decode.
+     * @return the string with the given code.
+     * @throws IndexOutOfBoundsException if the code was never assigned.
+     */
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Gets the number of distinct strings.
+     *
+     * @return the dictionary size.
+     */
+    public int size() {
+        return values.size();
+    }
+}
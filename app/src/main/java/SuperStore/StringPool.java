@@ -0,0 +1,86 @@
+package SuperStore;
+
+/**
+ * Keeps one canonical instance of every distinct string it is given.
+ * <p>
+ * Values can be looked up by their characters, so a repeated value read
+ * through {@link DataRow#chars(int)} is resolved to the canonical string
+ * without creating a new one; only the first occurrence allocates.
+ */
+public class StringPool {
+    private String[] table = new String[256];
+    private int size;
+
+    /**
+     * Gets the canonical instance of a string.
+     *
+     * @param value the string, may be null.
+     * @return the pooled string equal to value, or null if value is null.
+     */
+    public String intern(String value) {
+        return value == null ? null : intern((CharSequence) value);
+    }
+
+    /**
+     * Gets the canonical string with the given characters, adding it if it is
+     * new.
+     *
+     * @param chars the characters of the string.
+     * @return the pooled string.
+     */
+    public String intern(CharSequence chars) {
+        int hash = hash(chars);
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        String value;
+        while ((value = table[slot]) != null) {
+            if (value.hashCode() == hash && value.contentEquals(chars)) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        value = chars.toString();
+        table[slot] = value;
+        if (++size * 2 > table.length) {
+            grow();
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of distinct strings in the pool.
+     *
+     * @return the pool size.
+     */
+    public int size() {
+        return size;
+    }
+
+    // same value as String.hashCode, which strings cache
+    private static int hash(CharSequence chars) {
+        int hash = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        String[] old = table;
+        table = new String[old.length * 2];
+        int mask = table.length - 1;
+        for (String value : old) {
+            if (value != null) {
+                int slot = mix(value.hashCode()) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+}
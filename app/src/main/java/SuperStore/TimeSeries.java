@@ -0,0 +1,320 @@
+package SuperStore;
+
+import java.util.LinkedHashMap;
+
+/**
+ * A measure of the line items of a {@link FactTable} per order day, with
+ * prefix sums for constant time range queries.
+ * <p>
+ * The series covers every day from the first to the last order date in one
+ * dense array, days without orders are 0. Building it scans the line items
+ * once and sums the days once; afterwards the sum of any range of days, a
+ * rolling sum, a moving average or a bucket of a week, month, quarter or
+ * year is the difference of two prefix sums. Orders are counted on their
+ * order date, each once. Line items without an order date are left out.
+ */
+public class TimeSeries {
+    /**
+     * The length of the buckets of {@link #buckets(Granularity)}.
+     */
+    public enum Granularity {
+        /** Single days, labeled "2016/11/08". */
+        DAY,
+        /** Weeks from Monday to Sunday, labeled by their Monday. */
+        WEEK,
+        /** Calendar months, labeled "2016/11". */
+        MONTH,
+        /** Calendar quarters, labeled "2016/Q4". */
+        QUARTER,
+        /** Calendar years, labeled "2016". */
+        YEAR
+    }
+
+    private final Measure measure;
+    private final int firstDay;
+    private final double[] daily;
+    // prefix[i] is the sum of the first i days
+    private final double[] prefix;
+
+    private TimeSeries(Measure measure, int firstDay, double[] daily) {
+        this.measure = measure;
+        this.firstDay = firstDay;
+        this.daily = daily;
+        this.prefix = new double[daily.length + 1];
+        for (int i = 0; i < daily.length; i++) {
+            prefix[i + 1] = prefix[i] + daily[i];
+        }
+    }
+
+    /**
+     * Builds the daily series of a measure.
+     *
+     * @param facts   The line items of all customers.
+     * @param measure SALES, PROFIT, QUANTITY or ORDERS.
+     * @return the series.
+     * @throws IllegalArgumentException if the measure counts customers.
+     */
+    public static TimeSeries build(FactTable facts, Measure measure) {
+        if (measure == Measure.CUSTOMERS || measure == Measure.APPROX_CUSTOMERS) {
+            throw new IllegalArgumentException("Customers are not counted per day");
+        }
+        int rows = facts.size();
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int row = 0; row < rows; row++) {
+            int day = facts.orderEpochDay(row);
+            if (day != DateDecoder.NO_DATE) {
+                first = Math.min(first, day);
+                last = Math.max(last, day);
+            }
+        }
+        if (first > last) {
+            return new TimeSeries(measure, 0, new double[0]);
+        }
+        double[] daily = new double[last - first + 1];
+        boolean[] countedOrders = measure == Measure.ORDERS
+                ? new boolean[facts.dictionary(Dimension.ORDER).size()]
+                : null;
+        for (int row = 0; row < rows; row++) {
+            int day = facts.orderEpochDay(row);
+            if (day == DateDecoder.NO_DATE) {
+                continue;
+            }
+            switch (measure) {
+                case SALES -> daily[day - first] += facts.sales(row);
+                case PROFIT -> daily[day - first] += facts.profit(row);
+                case QUANTITY -> daily[day - first] += facts.quantity(row);
+                default -> {
+                    int order = facts.code(Dimension.ORDER, row);
+                    if (!countedOrders[order]) {
+                        countedOrders[order] = true;
+                        daily[day - first]++;
+                    }
+                }
+            }
+        }
+        return new TimeSeries(measure, first, daily);
+    }
+
+    /**
+     * Gets the measure of the series.
+     *
+     * @return the measure.
+     */
+    public Measure getMeasure() {
+        return measure;
+    }
+
+    /**
+     * Gets the first day of the series.
+     *
+     * @return the epoch day of the first order date.
+     */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * Gets the last day of the series.
+     *
+     * @return the epoch day of the last order date, before the first day if
+     *         the series is empty.
+     */
+    public int getLastDay() {
+        return firstDay + daily.length - 1;
+    }
+
+    /**
+     * Gets the value of one day.
+     *
+     * @param epochDay the day.
+     * @return the value, 0 for days outside the series.
+     */
+    public double get(int epochDay) {
+        int index = epochDay - firstDay;
+        return index < 0 || index >= daily.length ? 0 : daily[index];
+    }
+
+    /**
+     * Sums a range of days in constant time. Days outside the series count
+     * as 0.
+     *
+     * @param fromDay the first day of the range.
+     * @param toDay   the last day of the range, inclusive.
+     * @return the sum, 0 if the range is empty.
+     */
+    public double sum(int fromDay, int toDay) {
+        int from = Math.max(fromDay - firstDay, 0);
+        int to = Math.min(toDay - firstDay, daily.length - 1);
+        return from > to ? 0 : prefix[to + 1] - prefix[from];
+    }
+
+    /**
+     * Sums the days of a window ending on a day.
+     *
+     * @param endDay the last day of the window.
+     * @param days   the length of the window.
+     * @return the rolling sum.
+     * @throws IllegalArgumentException if days is not positive.
+     */
+    public double rollingSum(int endDay, int days) {
+        checkWindow(days);
+        return sum(endDay - days + 1, endDay);
+    }
+
+    /**
+     * Averages the days of a window ending on a day.
+     *
+     * @param endDay the last day of the window.
+     * @param days   the length of the window.
+     * @return the moving average per day.
+     * @throws IllegalArgumentException if days is not positive.
+     */
+    public double movingAverage(int endDay, int days) {
+        return rollingSum(endDay, days) / days;
+    }
+
+    /**
+     * Computes the rolling sum of every day of the series.
+     *
+     * @param days the length of the window.
+     * @return the rolling sums, indexed by day minus {@link #getFirstDay()}.
+     * @throws IllegalArgumentException if days is not positive.
+     */
+    public double[] rollingSums(int days) {
+        checkWindow(days);
+        double[] sums = new double[daily.length];
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = prefix[i + 1] - prefix[Math.max(i + 1 - days, 0)];
+        }
+        return sums;
+    }
+
+    /**
+     * Computes the moving average of every day of the series.
+     *
+     * @param days the length of the window.
+     * @return the moving averages, indexed by day minus
+     *         {@link #getFirstDay()}.
+     * @throws IllegalArgumentException if days is not positive.
+     */
+    public double[] movingAverages(int days) {
+        double[] averages = rollingSums(days);
+        for (int i = 0; i < averages.length; i++) {
+            averages[i] /= days;
+        }
+        return averages;
+    }
+
+    /**
+     * Sums the series into calendar buckets. Every bucket from the one of the
+     * first day to the one of the last day is included, empty ones as 0.
+     *
+     * @param granularity the length of the buckets.
+     * @return the bucket sums by label, in chronological order.
+     */
+    public LinkedHashMap<String, Double> buckets(Granularity granularity) {
+        LinkedHashMap<String, Double> buckets = new LinkedHashMap<>();
+        if (daily.length == 0) {
+            return buckets;
+        }
+        for (int start = bucketStart(firstDay, granularity); start <= getLastDay(); ) {
+            int next = nextBucket(start, granularity);
+            buckets.put(label(start, granularity), sum(start, next - 1));
+            start = next;
+        }
+        return buckets;
+    }
+
+    /**
+     * Computes the change of every bucket against the same bucket one year
+     * earlier. Days are compared with the same date of the previous year and
+     * weeks with the week 52 weeks earlier. Buckets of the first year have no
+     * previous bucket and are left out.
+     *
+     * @param granularity the length of the buckets.
+     * @return the differences by label, in chronological order.
+     */
+    public LinkedHashMap<String, Double> yearOverYear(Granularity granularity) {
+        LinkedHashMap<String, Double> deltas = new LinkedHashMap<>();
+        if (daily.length == 0) {
+            return deltas;
+        }
+        int firstBucket = bucketStart(firstDay, granularity);
+        for (int start = firstBucket; start <= getLastDay(); ) {
+            int next = nextBucket(start, granularity);
+            int previous = yearBefore(start, granularity);
+            if (previous >= firstBucket) {
+                double before = sum(previous, nextBucket(previous, granularity) - 1);
+                deltas.put(label(start, granularity), sum(start, next - 1) - before);
+            }
+            start = next;
+        }
+        return deltas;
+    }
+
+    private static void checkWindow(int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days has to be positive");
+        }
+    }
+
+    private static int bucketStart(int day, Granularity granularity) {
+        int yearMonth = DateDecoder.yearMonth(day);
+        int year = yearMonth / 100;
+        int month = yearMonth % 100;
+        return switch (granularity) {
+            case DAY -> day;
+            // epoch day 0 was a Thursday
+            case WEEK -> day - Math.floorMod(day + 3, 7);
+            case MONTH -> DateDecoder.epochDay(year, month, 1);
+            case QUARTER -> DateDecoder.epochDay(year, (month - 1) / 3 * 3 + 1, 1);
+            case YEAR -> DateDecoder.epochDay(year, 1, 1);
+        };
+    }
+
+    private static int nextBucket(int start, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> start + 1;
+            case WEEK -> start + 7;
+            case MONTH -> plusMonths(start, 1);
+            case QUARTER -> plusMonths(start, 3);
+            case YEAR -> plusMonths(start, 12);
+        };
+    }
+
+    private static int yearBefore(int start, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> {
+                int yearMonth = DateDecoder.yearMonth(start);
+                int dayOfMonth = start - DateDecoder.epochDay(yearMonth / 100, yearMonth % 100, 1) + 1;
+                // 29 February is compared with 28 February
+                int previousMonth = DateDecoder.epochDay(yearMonth / 100 - 1, yearMonth % 100, 1);
+                int previous = previousMonth + dayOfMonth - 1;
+                yield DateDecoder.month(previous) == yearMonth % 100 ? previous : previous - 1;
+            }
+            case WEEK -> start - 52 * 7;
+            default -> plusMonths(start, -12);
+        };
+    }
+
+    // the first day of a month some months after the month of a first day
+    private static int plusMonths(int firstOfMonth, int months) {
+        int yearMonth = DateDecoder.yearMonth(firstOfMonth);
+        int index = yearMonth / 100 * 12 + yearMonth % 100 - 1 + months;
+        return DateDecoder.epochDay(index / 12, index % 12 + 1, 1);
+    }
+
+    private static String label(int start, Granularity granularity) {
+        int yearMonth = DateDecoder.yearMonth(start);
+        int year = yearMonth / 100;
+        int month = yearMonth % 100;
+        return switch (granularity) {
+            case DAY, WEEK -> String.format("%d/%02d/%02d", year, month,
+                    start - DateDecoder.epochDay(year, month, 1) + 1);
+            case MONTH -> String.format("%d/%02d", year, month);
+            case QUARTER -> year + "/Q" + ((month + 2) / 3);
+            case YEAR -> String.valueOf(year);
+        };
+    }
+}
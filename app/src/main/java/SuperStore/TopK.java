@@ -0,0 +1,144 @@
+package SuperStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the K items with the highest values of a stream of items.
+ * <p>
+ * The items are held in a binary min-heap of at most K entries, so the
+ * weakest kept item is at the root: an offered item either loses against
+ * it in constant time or replaces it in O(log K). Ranking n items takes
+ * O(n log K) time and O(K) memory, with no sort of all items. Of equal
+ * values the item offered first ranks higher.
+ *
+ * @param <T> the type of the items.
+ */
+final class TopK<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int k;
+    private double[] values;
+    private long[] sequence;
+    private Object[] items;
+    private int size;
+    private long offered;
+
+    /**
+     * Creates an empty ranking.
+     *
+     * @param k the number of items to keep.
+     * @throws IllegalArgumentException if k is not positive.
+     */
+    TopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k has to be positive");
+        }
+        this.k = k;
+        // grows up to k entries, so a large k costs only what is offered
+        int capacity = Math.min(k, INITIAL_CAPACITY);
+        this.values = new double[capacity];
+        this.sequence = new long[capacity];
+        this.items = new Object[capacity];
+    }
+
+    /**
+     * Offers an item to the ranking.
+     *
+     * @param item  the item.
+     * @param value the value the item is ranked by.
+     */
+    void offer(T item, double value) {
+        long position = offered++;
+        if (size < k) {
+            if (size == values.length) {
+                int capacity = (int) Math.min(k, 2L * size);
+                values = Arrays.copyOf(values, capacity);
+                sequence = Arrays.copyOf(sequence, capacity);
+                items = Arrays.copyOf(items, capacity);
+            }
+            values[size] = value;
+            sequence[size] = position;
+            items[size] = item;
+            siftUp(size++);
+        } else if (value > values[0]) {
+            values[0] = value;
+            sequence[0] = position;
+            items[0] = item;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Removes the kept items, highest value first.
+     *
+     * @return the ranking of at most K items.
+     */
+    @SuppressWarnings("unchecked")
+    List<Ranked<T>> drain() {
+        // the root is the weakest entry, so the ranking comes out reversed
+        List<Ranked<T>> ranking = new ArrayList<>(size);
+        while (size > 0) {
+            ranking.add(new Ranked<>((T) items[0], values[0]));
+            size--;
+            move(size, 0);
+            siftDown(0);
+        }
+        Collections.reverse(ranking);
+        return Collections.unmodifiableList(ranking);
+    }
+
+    // whether entry a ranks below entry b
+    private boolean weaker(int a, int b) {
+        return values[a] < values[b] || values[a] == values[b] && sequence[a] > sequence[b];
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!weaker(index, parent)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && weaker(child + 1, child)) {
+                child++;
+            }
+            if (!weaker(child, index)) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void move(int from, int to) {
+        values[to] = values[from];
+        sequence[to] = sequence[from];
+        items[to] = items[from];
+        items[from] = null;
+    }
+
+    private void swap(int a, int b) {
+        double value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+        long position = sequence[a];
+        sequence[a] = sequence[b];
+        sequence[b] = position;
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+    }
+}
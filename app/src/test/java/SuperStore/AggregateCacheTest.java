@@ -0,0 +1,71 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+
+public class AggregateCacheTest {
+    private static final AggregateQuery SALES_PER_REGION = AggregateQuery.of(List.of(Dimension.REGION),
+            EnumSet.of(Measure.SALES));
+
+    private static InstanceGenerator load() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        return generator;
+    }
+
+    @Test
+    public void testRepeatedQueryIsCached() throws IOException {
+        AggregateCache cache = new AggregateCache(load());
+        GroupByResult first = cache.get(SALES_PER_REGION);
+        assertSame(first, cache.get(AggregateQuery.of(List.of(Dimension.REGION), EnumSet.of(Measure.SALES))));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNotSame(first, cache.get(SALES_PER_REGION.where(Dimension.SEGMENT, "Consumer")));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws IOException {
+        AggregateCache cache = new AggregateCache(load(), 2, Parallelism.sequential());
+        AggregateQuery perYear = AggregateQuery.of(List.of(Dimension.YEAR), EnumSet.of(Measure.SALES));
+        AggregateQuery perState = AggregateQuery.of(List.of(Dimension.STATE), EnumSet.of(Measure.SALES));
+        GroupByResult regions = cache.get(SALES_PER_REGION);
+        GroupByResult years = cache.get(perYear);
+        assertSame(regions, cache.get(SALES_PER_REGION));
+        cache.get(perState);
+        assertEquals(2, cache.size());
+        assertSame(regions, cache.get(SALES_PER_REGION));
+        assertNotSame(years, cache.get(perYear));
+        assertThrows(IllegalArgumentException.class, () -> new AggregateCache(new InstanceGenerator(), 0,
+                Parallelism.sequential()));
+    }
+
+    @Test
+    public void testChangedDataInvalidatesResults() throws IOException {
+        InstanceGenerator generator = load();
+        AggregateCache cache = new AggregateCache(generator);
+        GroupByResult before = cache.get(SALES_PER_REGION);
+        long version = generator.getVersion();
+
+        // a return flag that is already set, or an existing line, changes nothing
+        generator.setReturnMap(new FileDataProcessor("/SuperStoreReturns.csv"));
+        long afterReturns = generator.getVersion();
+        assertNotEquals(version, afterReturns);
+        generator.setReturnMap(new FileDataProcessor("/SuperStoreReturns.csv"));
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        assertEquals(afterReturns, generator.getVersion());
+
+        GroupByResult recomputed = cache.get(SALES_PER_REGION);
+        assertNotSame(before, recomputed);
+        assertSame(recomputed, cache.get(SALES_PER_REGION));
+
+        generator.addCustomer(new String[] { "1", "CA-2099-000001", "1.1.2099", "5.1.2099", "Standard Class",
+                "ZZ-10000", "New Customer", "Consumer", "United States", "Boston", "Massachusetts", "2108",
+                "East", "FUR-CH-10000001", "Furniture", "Chairs", "Chair", "100", "1", "0", "10" });
+        GroupByResult updated = cache.get(SALES_PER_REGION);
+        assertEquals(before.toMap(Measure.SALES).get("East") + 100, updated.toMap(Measure.SALES).get("East"), 1e-6);
+    }
+}
@@ -0,0 +1,61 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvTokenizerTest {
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String[]> records(String text) {
+        ByteBuffer buffer = bytes(text);
+        List<String[]> rows = new ArrayList<>();
+        new CsvTokenizer().forEachRecord(buffer, 0, buffer.limit(), true, row -> rows.add(row.toArray()));
+        return rows;
+    }
+
+    @Test
+    public void testPlainFields() {
+        List<String[]> rows = records("a;b;c\r\n1;;3\n");
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] {"a", "b", "c"}, rows.get(0));
+        assertArrayEquals(new String[] {"1", "", "3"}, rows.get(1));
+    }
+
+    @Test
+    public void testQuotedFields() {
+        List<String[]> rows = records("1;\"Chair; Rounded Back\";\"12\"\" Ruler\"\n2;\"two\nlines\";x");
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] {"1", "Chair; Rounded Back", "12\" Ruler"}, rows.get(0));
+        assertArrayEquals(new String[] {"2", "two\nlines", "x"}, rows.get(1));
+    }
+
+    @Test
+    public void testIncompleteRecord() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        ByteBuffer buffer = bytes("a;b\nc;\"d");
+        assertEquals(4, tokenizer.tokenize(buffer, 0, buffer.limit(), false));
+        assertEquals(-1, tokenizer.tokenize(buffer, 4, buffer.limit(), false));
+        assertEquals(buffer.limit(), tokenizer.tokenize(buffer, 4, buffer.limit(), true));
+        assertEquals("d", tokenizer.get(1));
+    }
+
+    @Test
+    public void testFieldOffsets() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        ByteBuffer buffer = bytes("ab;\"cd\"\n");
+        tokenizer.tokenize(buffer, 0, buffer.limit(), true);
+        assertEquals(2, tokenizer.size());
+        assertEquals(0, tokenizer.start(0));
+        assertEquals(2, tokenizer.end(0));
+        assertEquals(4, tokenizer.start(1));
+        assertEquals(6, tokenizer.end(1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> tokenizer.get(2));
+    }
+}
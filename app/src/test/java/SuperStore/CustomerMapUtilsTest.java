@@ -3,7 +3,12 @@ package SuperStore;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 
 class CustomerMapUtilsTest {
 
@@ -65,8 +70,7 @@ class CustomerMapUtilsTest {
         HashMap<String, Customer> customerMap = new HashMap<>();
         Customer customer = new Customer();
         Order order = new Order();
-        Address address = new Address();
-        address.setRegion("East");
+        Address address = new Address("United States", 10035, "East", "New York", "New York City");
         order.setAddress(address);
         Product product = new Product();
         product.setSales(150.0);
@@ -77,4 +81,113 @@ class CustomerMapUtilsTest {
         HashMap<String, Double> salesMap = CustomerMapUtils.getTotalSalesPerFilter(customerMap, "region");
         assertEquals(150.0, salesMap.get("East"));
     }
+
+    @Test
+    void testGetTotalSalesPerYearAndMonth() {
+        HashMap<String, Customer> customerMap = new HashMap<>();
+        Customer customer = new Customer();
+        Order order = new Order();
+        order.setOrderId("CA-2016-152156");
+        order.setOrderDate(LocalDate.of(2016, 11, 8));
+        Product product = new Product();
+        product.setSales(150.0);
+        order.addProduct(product);
+        customer.addOrder(order);
+        customerMap.put("1", customer);
+
+        assertEquals(150.0, CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Year").get("2016"));
+        assertEquals(150.0, CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Month").get("2016/11"));
+    }
+
+    @Test
+    void testAggregateMatchesSeparateMethods() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+
+        MetricSummary summary = CustomerMapUtils.aggregate(customerMap, EnumSet.allOf(Metric.class));
+        assertEquals(CustomerMapUtils.calculateCustomersNumber(customerMap), summary.getCount(Metric.CUSTOMERS));
+        assertEquals(CustomerMapUtils.calculateOrdersNumber(customerMap), summary.getCount(Metric.ORDERS));
+        assertEquals(CustomerMapUtils.calculateProductsNumber(customerMap), summary.getCount(Metric.PRODUCTS));
+        assertEquals(CustomerMapUtils.getTotalSales(customerMap), summary.get(Metric.TOTAL_SALES), 1e-6);
+        assertEquals(CustomerMapUtils.getAverageSalesForAllOrders(customerMap),
+                summary.get(Metric.AVERAGE_SALES_PER_ORDER), 1e-9);
+        assertSame(CustomerMapUtils.getBestCustomer(customerMap), summary.getBestCustomer());
+        FactTable facts = generator.getFactTable();
+        long quantity = 0;
+        double profit = 0;
+        for (int row = 0; row < facts.size(); row++) {
+            quantity += facts.quantity(row);
+            profit += facts.profit(row);
+        }
+        assertEquals(quantity, summary.getCount(Metric.TOTAL_QUANTITY));
+        assertEquals(profit, summary.get(Metric.TOTAL_PROFIT), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> summary.get(Metric.BEST_CUSTOMER));
+
+        MetricSummary counts = CustomerMapUtils.aggregate(customerMap, EnumSet.of(Metric.ORDERS));
+        assertEquals(5009, counts.getCount(Metric.ORDERS));
+        assertFalse(counts.contains(Metric.TOTAL_SALES));
+        assertThrows(IllegalArgumentException.class, () -> counts.get(Metric.TOTAL_SALES));
+
+        MetricSummary empty = CustomerMapUtils.aggregate(new HashMap<>(), EnumSet.allOf(Metric.class));
+        assertEquals(0, empty.get(Metric.AVERAGE_SALES_PER_ORDER));
+        assertNull(empty.getBestCustomer());
+    }
+
+    @Test
+    void testParallelAggregateIsDeterministic() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+        MetricSummary expected = CustomerMapUtils.aggregate(customerMap, EnumSet.allOf(Metric.class),
+                Parallelism.sequential());
+        MetricSummary sequential = CustomerMapUtils.aggregate(customerMap, EnumSet.allOf(Metric.class),
+                Parallelism.sequential().withThreshold(50));
+        MetricSummary parallel = CustomerMapUtils.aggregate(customerMap, EnumSet.allOf(Metric.class),
+                Parallelism.of(4).withThreshold(50));
+        for (Metric metric : EnumSet.range(Metric.CUSTOMERS, Metric.TOTAL_PROFIT)) {
+            assertEquals(sequential.get(metric), parallel.get(metric));
+            assertEquals(expected.get(metric), parallel.get(metric), 1e-6);
+        }
+        assertSame(expected.getBestCustomer(), parallel.getBestCustomer());
+    }
+
+    @Test
+    void testTopK() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+
+        List<Ranked<Customer>> customers = CustomerMapUtils.getTopCustomers(customerMap, Measure.SALES, 10);
+        assertEquals(10, customers.size());
+        assertSame(CustomerMapUtils.getBestCustomer(customerMap), customers.get(0).item());
+        List<Double> sales = customerMap.values().stream()
+                .map(c -> CustomerMapUtils.getTotalSalesForCustomer(customerMap, c.getCustomerId()))
+                .sorted(Comparator.reverseOrder()).limit(10).toList();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(sales.get(i), customers.get(i).value(), 1e-6);
+            assertEquals(CustomerMapUtils.getTotalSalesForCustomer(customerMap,
+                    customers.get(i).item().getCustomerId()), customers.get(i).value(), 1e-6);
+        }
+        Ranked<Customer> mostOrders = CustomerMapUtils.getTopCustomers(customerMap, Measure.ORDERS, 1).get(0);
+        assertEquals(customerMap.values().stream().mapToInt(c -> c.getOrders().size()).max().getAsInt(),
+                mostOrders.value());
+        assertThrows(IllegalArgumentException.class,
+                () -> CustomerMapUtils.getTopCustomers(customerMap, Measure.CUSTOMERS, 1));
+
+        FactTable facts = generator.getFactTable();
+        HashMap<String, Double> profitPerCity = CustomerMapUtils.groupBy(facts, List.of(Dimension.CITY),
+                EnumSet.of(Measure.PROFIT)).toMap(Measure.PROFIT);
+        List<Ranked<String>> cities = CustomerMapUtils.getTop(facts, Dimension.CITY, Measure.PROFIT, 100);
+        assertEquals(100, cities.size());
+        List<Double> profits = profitPerCity.values().stream().sorted(Comparator.reverseOrder()).limit(100)
+                .toList();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(profits.get(i), cities.get(i).value());
+            assertEquals(profitPerCity.get(cities.get(i).item()), cities.get(i).value());
+        }
+        assertEquals(17, CustomerMapUtils.getTop(facts, Dimension.SUB_CATEGORY, Measure.QUANTITY, 50).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> CustomerMapUtils.getTop(facts, Dimension.PRODUCT, Measure.SALES, 0));
+    }
 }
@@ -0,0 +1,34 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+
+public class DateDecoderTest {
+
+    @Test
+    public void testDecodeMatchesLocalDate() {
+        DateDecoder decoder = new DateDecoder();
+        for (LocalDate date = LocalDate.of(1999, 1, 1); date.getYear() < 2030; date = date.plusDays(1)) {
+            String text = date.getDayOfMonth() + "." + date.getMonthValue() + "." + date.getYear();
+            assertEquals(date.toEpochDay(), decoder.decode(text), text);
+            // the second lookup may come from the cache
+            assertEquals(date.toEpochDay(), decoder.decode(text), text);
+            assertEquals(date.getYear(), DateDecoder.year((int) date.toEpochDay()));
+            assertEquals(date.getMonthValue(), DateDecoder.month((int) date.toEpochDay()));
+        }
+        assertEquals(LocalDate.of(2016, 11, 8).toEpochDay(), decoder.decode("08.11.2016"));
+    }
+
+    @Test
+    public void testMalformedDates() {
+        DateDecoder decoder = new DateDecoder();
+        assertEquals(DateDecoder.NO_DATE, decoder.decode(""));
+        assertEquals(DateDecoder.NO_DATE, decoder.decode("2016-11-08"));
+        assertEquals(DateDecoder.NO_DATE, decoder.decode("8.11.16"));
+        assertEquals(DateDecoder.NO_DATE, decoder.decode("31.4.2016"));
+        assertEquals(DateDecoder.NO_DATE, decoder.decode("29.2.2015"));
+        assertEquals(DateDecoder.NO_DATE, decoder.decode("123.1.2016"));
+        assertEquals(LocalDate.of(2016, 2, 29).toEpochDay(), decoder.decode("29.2.2016"));
+    }
+}
@@ -0,0 +1,58 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class DecimalParserTest {
+
+    @Test
+    public void testParseDouble() {
+        assertEquals(261.96, DecimalParser.parseDouble("261,96"));
+        assertEquals(41.9136, DecimalParser.parseDouble("41,9136"));
+        assertEquals(-3.8, DecimalParser.parseDouble("-3,8"));
+        assertEquals(0.2, DecimalParser.parseDouble("0.2"));
+        assertEquals(2.0, DecimalParser.parseDouble("2"));
+        assertEquals(12345678901234567.89, DecimalParser.parseDouble("12345678901234567,89"));
+    }
+
+    @Test
+    public void testMalformedInput() {
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("")));
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("-")));
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("1,2,3")));
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("12a")));
+        // too many digits for the fast path
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("12345678901234567890x")));
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("12345678901234567890,1,2")));
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("12345678901234567890e5")));
+        assertEquals(DecimalParser.INVALID_INT, DecimalParser.parseInt("2,5"));
+        assertEquals(DecimalParser.INVALID_INT, DecimalParser.parseInt("3000000000"));
+        assertEquals(DecimalParser.INVALID_FIXED, DecimalParser.parseFixed(",", 2));
+    }
+
+    @Test
+    public void testParseFixedAndInt() {
+        assertEquals(26196, DecimalParser.parseFixed("261,96", 2));
+        assertEquals(4191, DecimalParser.parseFixed("41,9136", 2));
+        assertEquals(13, DecimalParser.parseFixed("0,125", 2));
+        assertEquals(-380, DecimalParser.parseFixed("-3,8", 2));
+        assertEquals(7, DecimalParser.parseFixed("7", 0));
+        assertEquals(14, DecimalParser.parseInt("14"));
+        assertEquals(-2, DecimalParser.parseInt("-2"));
+        assertThrows(IllegalArgumentException.class, () -> DecimalParser.parseFixed("1", 10));
+    }
+
+    @Test
+    public void testParseTokenizerFields() {
+        ByteBuffer buffer = ByteBuffer.wrap("261,96;2;0,2;-41,9136\n".getBytes(StandardCharsets.UTF_8));
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        tokenizer.tokenize(buffer, 0, buffer.limit(), true);
+        assertEquals(261.96, tokenizer.getDouble(0));
+        assertEquals(2, tokenizer.getInt(1));
+        assertEquals(0.2, tokenizer.getDouble(2));
+        assertEquals(-41.9136, tokenizer.getDouble(3));
+        assertEquals("0,2", tokenizer.chars(2).toString());
+    }
+}
@@ -0,0 +1,102 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+public class FactTableTest {
+
+    @Test
+    public void testAddAndRead() {
+        Customer customer = new Customer("CG-12520", "Claire Gute", "Consumer");
+        Order order = new Order();
+        order.setOrderId("CA-2016-152156");
+        order.setOrderEpochDay(17113);
+        order.setAddress(new Address("United States", 42420, "South", "Kentucky", "Henderson"));
+        Product product = new Product("FUR-BO-10001798", "Bush Somerset Collection Bookcase",
+                new CategoryInfo("Furniture", "Bookcases"), 261.96, 2, 0, 41.9136);
+
+        FactTable facts = new FactTable();
+        assertEquals(0, facts.add(customer, order, product));
+        assertEquals(1, facts.add(null, new Order(), product));
+        assertEquals(2, facts.size());
+        assertEquals(261.96, facts.sales(0));
+        assertEquals(2, facts.quantity(0));
+        assertEquals(41.9136, facts.profit(0));
+        assertEquals(17113, facts.orderEpochDay(0));
+        assertEquals("South", facts.dictionary(Dimension.REGION).decode(facts.code(Dimension.REGION, 0)));
+        assertEquals("", facts.dictionary(Dimension.REGION).decode(facts.code(Dimension.REGION, 1)));
+        assertEquals(523.92, facts.totalSales(), 1e-9);
+    }
+
+    @Test
+    public void testGrowAndGroup() {
+        FactTable facts = new FactTable();
+        Product product = new Product("FUR-BO-10001798", "Bookcase", new CategoryInfo("Furniture", "Bookcases"),
+                1, 1, 0, 0);
+        String[] regions = {"South", "West", "East"};
+        for (int i = 0; i < 5000; i++) {
+            Order order = new Order();
+            order.setOrderId("O-" + i);
+            order.setAddress(new Address("United States", 1, regions[i % 3], "State", "City"));
+            facts.add(null, order, product);
+        }
+        assertEquals(5000, facts.size());
+        double[] sales = facts.salesBy(Dimension.REGION);
+        assertEquals(1667, sales[facts.dictionary(Dimension.REGION).lookup("South")]);
+        assertEquals(1666, sales[facts.dictionary(Dimension.REGION).lookup("East")]);
+    }
+
+    @Test
+    public void testMatchesCustomerMap() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+        FactTable facts = generator.getFactTable();
+        assertEquals(9986, facts.size());
+        assertEquals(CustomerMapUtils.getTotalSales(customerMap), CustomerMapUtils.getTotalSales(facts), 1e-6);
+        for (String filter : new String[] {"Year", "Month", "Region"}) {
+            HashMap<String, Double> expected = CustomerMapUtils.getTotalSalesPerFilter(customerMap, filter);
+            HashMap<String, Double> actual = CustomerMapUtils.getTotalSalesPerFilter(facts, filter);
+            assertEquals(expected.keySet(), actual.keySet());
+            expected.forEach((key, sales) -> assertEquals(sales, actual.get(key), 1e-6));
+        }
+    }
+
+    @Test
+    public void testOffHeapStorage() throws IOException {
+        Path file = Files.createTempFile("facts", ".bin");
+        try (FactTable direct = FactTable.offHeap(); FactTable mapped = FactTable.mapped(file)) {
+            FactTable heap = new FactTable();
+            String[] regions = {"South", "West", "East"};
+            // more rows than one off-heap block
+            for (int i = 0; i < 70000; i++) {
+                Order order = new Order();
+                order.setOrderId("O-" + i);
+                order.setOrderEpochDay(17000 + i % 365);
+                order.setAddress(new Address("United States", 1, regions[i % 3], "State", "City"));
+                Product product = new Product(String.format("FUR-CH-%08d", i % 100), "Chair",
+                        new CategoryInfo("Furniture", "Chairs"), i % 7 + 0.5, i % 5 + 1, 0.2, i % 3 - 1);
+                for (FactTable facts : new FactTable[] {heap, direct, mapped}) {
+                    facts.add(null, order, product);
+                }
+            }
+            for (FactTable facts : new FactTable[] {direct, mapped}) {
+                assertEquals(heap.size(), facts.size());
+                for (int row = 0; row < heap.size(); row += 997) {
+                    assertEquals(heap.sales(row), facts.sales(row));
+                    assertEquals(heap.quantity(row), facts.quantity(row));
+                    assertEquals(heap.profit(row), facts.profit(row));
+                    assertEquals(heap.orderEpochDay(row), facts.orderEpochDay(row));
+                    assertEquals(heap.code(Dimension.ORDER, row), facts.code(Dimension.ORDER, row));
+                }
+                assertEquals(heap.totalSales(), facts.totalSales());
+                assertArrayEquals(heap.salesBy(Dimension.REGION), facts.salesBy(Dimension.REGION));
+            }
+        }
+        assertFalse(Files.exists(file));
+    }
+}
@@ -3,7 +3,9 @@ package SuperStore;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FileDataProcessorTest {
 
@@ -23,4 +25,16 @@ public class FileDataProcessorTest {
         assertArrayEquals(new String[] {"Data4", "Data5", "Data6"}, result.get(1));
         assertArrayEquals(new String[] {"Title1", "Title2", "Title3"}, processor.getTitles());
     }
+
+    @Test
+    public void testProcessFileStreamsRows() throws IOException {
+        FileDataProcessor processor = new FileDataProcessor("/SuperStoreOrders.csv");
+        AtomicInteger rows = new AtomicInteger();
+        processor.processFile(row -> {
+            assertEquals(21, row.length);
+            rows.incrementAndGet();
+        });
+        assertEquals(9994, rows.get());
+        assertEquals(21, processor.getTitles().length);
+    }
 }
@@ -0,0 +1,168 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+
+public class GroupByTest {
+    private static InstanceGenerator generator;
+    private static FactTable facts;
+
+    @BeforeAll
+    public static void load() throws IOException {
+        generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        facts = generator.getFactTable();
+    }
+
+    @Test
+    public void testMultipleDimensions() {
+        GroupByResult result = CustomerMapUtils.groupBy(facts,
+                List.of(Dimension.STATE, Dimension.YEAR, Dimension.CATEGORY),
+                EnumSet.of(Measure.SALES, Measure.QUANTITY, Measure.ORDERS));
+        double sales = 0;
+        double quantity = 0;
+        HashMap<String, Double> californiaFurniture = new HashMap<>();
+        for (int group = 0; group < result.size(); group++) {
+            sales += result.get(group, Measure.SALES);
+            quantity += result.get(group, Measure.QUANTITY);
+            assertTrue(result.get(group, Measure.ORDERS) >= 1);
+            if (result.getValue(group, 0).equals("California") && result.getValue(group, 2).equals("Furniture")) {
+                californiaFurniture.put(result.getValue(group, 1), result.get(group, Measure.SALES));
+            }
+        }
+        assertEquals(facts.totalSales(), sales, 1e-6);
+        MetricSummary summary = CustomerMapUtils.aggregate(generator.getCustomerMap(),
+                EnumSet.of(Metric.TOTAL_QUANTITY));
+        assertEquals(summary.get(Metric.TOTAL_QUANTITY), quantity);
+        assertEquals(4, californiaFurniture.size());
+
+        double expected = 0;
+        for (int row = 0; row < facts.size(); row++) {
+            if (facts.dictionary(Dimension.STATE).decode(facts.code(Dimension.STATE, row)).equals("California")
+                    && facts.dictionary(Dimension.CATEGORY).decode(facts.code(Dimension.CATEGORY, row))
+                            .equals("Furniture")
+                    && DateDecoder.year(facts.orderEpochDay(row)) == 2016) {
+                expected += facts.sales(row);
+            }
+        }
+        assertEquals(expected, californiaFurniture.get("2016"), 1e-6);
+        assertEquals(expected, result.toMap(Measure.SALES).get("California, 2016, Furniture"), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> result.get(0, Measure.PROFIT));
+    }
+
+    @Test
+    public void testMatchesCustomerMapMethods() {
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+        assertEquals(CustomerMapUtils.getAmountCustomerPerFilter(customerMap, "State"),
+                CustomerMapUtils.getAmountCustomerPerFilter(facts, "State"));
+        assertEquals(CustomerMapUtils.getAmountCustomerPerFilter(customerMap, "City"),
+                CustomerMapUtils.getAmountCustomerPerFilter(facts, "Unknown"));
+
+        GroupByResult segments = CustomerMapUtils.groupBy(facts, List.of(Dimension.SEGMENT),
+                EnumSet.of(Measure.CUSTOMERS));
+        HashMap<String, Integer> customersPerSegment = CustomerMapUtils.getAmountOfSegment(customerMap);
+        assertEquals(3, segments.size());
+        for (int group = 0; group < segments.size(); group++) {
+            assertEquals(customersPerSegment.get(segments.getValue(group, 0)),
+                    (int) segments.get(group, Measure.CUSTOMERS));
+        }
+
+        HashMap<String, Double> quarters = CustomerMapUtils.getTotalSalesPerFilter(facts, "Quarter");
+        assertEquals(16, quarters.size());
+        HashMap<String, Double> months = CustomerMapUtils.getTotalSalesPerFilter(facts, "Month");
+        double fourthQuarter = months.get("2016/10") + months.get("2016/11") + months.get("2016/12");
+        assertEquals(fourthQuarter, quarters.get("2016/Q4"), 1e-6);
+    }
+
+    @Test
+    public void testSparseKeysAndGrandTotal() {
+        // more order and product combinations than the dense lookup array holds
+        GroupByResult lines = CustomerMapUtils.groupBy(facts, List.of(Dimension.ORDER, Dimension.PRODUCT),
+                EnumSet.of(Measure.SALES));
+        assertEquals(facts.size(), lines.size());
+        GroupByResult total = CustomerMapUtils.groupBy(facts, Collections.emptyList(),
+                EnumSet.of(Measure.SALES, Measure.ORDERS, Measure.CUSTOMERS));
+        assertEquals(1, total.size());
+        assertEquals(facts.totalSales(), total.get(0, Measure.SALES), 1e-6);
+        assertEquals(5009, total.get(0, Measure.ORDERS));
+        assertEquals(793, total.get(0, Measure.CUSTOMERS));
+        assertEquals(facts.totalSales(), total.toMap(Measure.SALES).get(""), 1e-6);
+    }
+
+    @Test
+    public void testParallelGroupByIsDeterministic() {
+        List<Dimension> dimensions = List.of(Dimension.REGION, Dimension.MONTH);
+        EnumSet<Measure> measures = EnumSet.allOf(Measure.class);
+        GroupByResult expected = CustomerMapUtils.groupBy(facts, dimensions, measures, Parallelism.sequential());
+        GroupByResult sequential = CustomerMapUtils.groupBy(facts, dimensions, measures,
+                Parallelism.sequential().withThreshold(700));
+        GroupByResult parallel = CustomerMapUtils.groupBy(facts, dimensions, measures,
+                Parallelism.of(3).withThreshold(700));
+        assertEquals(expected.size(), parallel.size());
+        for (int group = 0; group < expected.size(); group++) {
+            assertEquals(expected.getValue(group, 0), parallel.getValue(group, 0));
+            assertEquals(expected.getValue(group, 1), parallel.getValue(group, 1));
+            for (Measure measure : measures) {
+                assertEquals(sequential.get(group, measure), parallel.get(group, measure));
+                assertEquals(expected.get(group, measure), parallel.get(group, measure), 1e-6);
+            }
+        }
+        GroupByResult total = CustomerMapUtils.groupBy(facts, Collections.emptyList(),
+                EnumSet.of(Measure.ORDERS, Measure.CUSTOMERS), Parallelism.of(2).withThreshold(100));
+        assertEquals(5009, total.get(0, Measure.ORDERS));
+        assertEquals(793, total.get(0, Measure.CUSTOMERS));
+        assertThrows(IllegalArgumentException.class, () -> Parallelism.of(0));
+        assertThrows(IllegalArgumentException.class, () -> Parallelism.common().withThreshold(0));
+    }
+
+    @Test
+    public void testApproximateCustomers() {
+        GroupByResult perState = CustomerMapUtils.groupBy(facts, List.of(Dimension.STATE),
+                EnumSet.of(Measure.CUSTOMERS, Measure.APPROX_CUSTOMERS));
+        for (int group = 0; group < perState.size(); group++) {
+            double exact = perState.get(group, Measure.CUSTOMERS);
+            assertEquals(exact, perState.get(group, Measure.APPROX_CUSTOMERS), Math.max(2, exact * 0.05));
+        }
+        HashMap<String, Integer> customers = perState.toCountMap(Measure.CUSTOMERS);
+        HashMap<String, Integer> orders = CustomerMapUtils.getAmountCustomerPerFilter(facts, "State");
+        assertTrue(customers.get("California") < orders.get("California"));
+
+        // thousands of small groups, counted by sparse sketches
+        GroupByResult perCityAndMonth = CustomerMapUtils.groupBy(facts, List.of(Dimension.CITY, Dimension.MONTH),
+                EnumSet.of(Measure.CUSTOMERS, Measure.APPROX_CUSTOMERS));
+        assertTrue(perCityAndMonth.size() > 2000);
+        for (int group = 0; group < perCityAndMonth.size(); group++) {
+            assertEquals(perCityAndMonth.get(group, Measure.CUSTOMERS),
+                    perCityAndMonth.get(group, Measure.APPROX_CUSTOMERS), 1);
+        }
+
+        GroupByResult total = CustomerMapUtils.groupBy(facts, Collections.emptyList(),
+                EnumSet.of(Measure.APPROX_CUSTOMERS), Parallelism.of(2).withThreshold(100));
+        assertEquals(793, total.get(0, Measure.APPROX_CUSTOMERS), 793 * 0.05);
+    }
+
+    @Test
+    public void testFilters() {
+        AggregateQuery perState = AggregateQuery.of(List.of(Dimension.STATE), EnumSet.of(Measure.SALES));
+        HashMap<String, Double> west = CustomerMapUtils.groupBy(facts, perState.where(Dimension.REGION, "West"),
+                Parallelism.sequential()).toMap(Measure.SALES);
+        HashMap<String, Double> all = CustomerMapUtils.getTotalSalesPerFilter(facts, "State");
+        assertTrue(west.containsKey("California"));
+        assertFalse(west.containsKey("New York"));
+        assertEquals(all.get("California"), west.get("California"), 1e-6);
+        double westSales = west.values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(CustomerMapUtils.getTotalSalesPerFilter(facts, "Region").get("West"), westSales, 1e-6);
+
+        AggregateQuery sliced = perState.where(Dimension.REGION, "West").where(Dimension.YEAR, "2016");
+        assertEquals(sliced, perState.where(Dimension.YEAR, "2016").where(Dimension.REGION, "West"));
+        assertTrue(CustomerMapUtils.groupBy(facts, sliced, Parallelism.sequential()).size() > 0);
+        assertEquals(0, CustomerMapUtils.groupBy(facts, perState.where(Dimension.REGION, "Atlantis"),
+                Parallelism.sequential()).size());
+    }
+}
@@ -0,0 +1,96 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class HyperLogLogTest {
+
+    @Test
+    public void testEstimate() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int value = 0; value < 100000; value++) {
+            // every value twice, duplicates must not count
+            sketch.add(value);
+            sketch.add(value);
+        }
+        assertEquals(100000, sketch.estimate(), 100000 * 0.05);
+
+        HyperLogLog small = new HyperLogLog();
+        assertEquals(0, small.estimate());
+        for (int value = 0; value < 50; value++) {
+            small.add(value * 7919L);
+        }
+        assertEquals(50, small.estimate(), 2);
+    }
+
+    @Test
+    public void testSparseSketchesStaySmall() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertTrue(sketch.registerBytes() <= 16);
+        for (int value = 0; value < 50; value++) {
+            sketch.add(value);
+        }
+        assertTrue(sketch.registerBytes() <= 512);
+        for (int value = 50; value < 200; value++) {
+            sketch.add(value);
+        }
+        // a sixteenth of the registers are set before the sketch turns dense
+        assertTrue(sketch.registerBytes() <= 2048);
+        assertEquals(200, sketch.estimate(), 200 * 0.05);
+        for (int value = 200; value < 10000; value++) {
+            sketch.add(value);
+        }
+        assertEquals(4096, sketch.registerBytes());
+    }
+
+    @Test
+    public void testMergeSparseAndDense() {
+        HyperLogLog small = new HyperLogLog();
+        HyperLogLog other = new HyperLogLog();
+        HyperLogLog large = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int value = 0; value < 100; value++) {
+            small.add(value);
+            union.add(value);
+        }
+        for (int value = 50; value < 150; value++) {
+            other.add(value);
+            union.add(value);
+        }
+        small.merge(other);
+        assertEquals(union.estimate(), small.estimate());
+        for (int value = 1000; value < 21000; value++) {
+            large.add(value);
+            union.add(value);
+        }
+        // sparse into dense and dense into sparse give the same registers
+        HyperLogLog copy = new HyperLogLog();
+        copy.merge(small);
+        copy.merge(large);
+        large.merge(small);
+        assertEquals(union.estimate(), large.estimate());
+        assertEquals(union.estimate(), copy.estimate());
+    }
+
+    @Test
+    public void testMerge() {
+        HyperLogLog left = new HyperLogLog();
+        HyperLogLog right = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int value = 0; value < 30000; value++) {
+            left.add(value);
+            union.add(value);
+        }
+        for (int value = 20000; value < 60000; value++) {
+            right.add(value);
+            union.add(value);
+        }
+        left.merge(right);
+        assertEquals(union.estimate(), left.estimate());
+        assertEquals(60000, left.estimate(), 60000 * 0.05);
+
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(10)));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+    }
+}
@@ -0,0 +1,37 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class IdCodecTest {
+
+    @Test
+    public void testPackedIds() {
+        IdCodec ids = new IdCodec();
+        long customer = ids.encode("CG-12520");
+        long order = ids.encode(new StringBuilder("CA-2016-152156"));
+        assertNotEquals(customer, order);
+        assertEquals(customer, ids.lookup("CG-12520"));
+        assertEquals(order, ids.lookup("CA-2016-152156"));
+        assertEquals("CG-12520", ids.decode(customer));
+        assertEquals("CA-2016-152156", ids.decode(order));
+        assertEquals("AA-00001", ids.decode(ids.encode("AA-00001")));
+        assertEquals("ZZ-0000-000000", ids.decode(ids.encode("ZZ-0000-000000")));
+        assertNotEquals(ids.encode("CG-12520"), ids.encode("GC-12520"));
+    }
+
+    @Test
+    public void testOtherIdsUseTheDictionary() {
+        IdCodec ids = new IdCodec();
+        assertEquals(IdCodec.NO_ID, ids.lookup("C001"));
+        assertEquals(IdCodec.NO_ID, ids.lookup(null));
+        long key = ids.encode("C001");
+        assertEquals(key, ids.encode("C001"));
+        assertEquals(key, ids.lookup("C001"));
+        assertEquals("C001", ids.decode(key));
+        for (String id : new String[] {"cg-12520", "CG-1252X", "CG-125200", "CA-2016_152156", "CA-201X-152156"}) {
+            assertEquals(id, ids.decode(ids.encode(id)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> ids.decode(12345));
+    }
+}
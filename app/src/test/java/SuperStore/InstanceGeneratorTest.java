@@ -3,9 +3,13 @@ package SuperStore;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 public class InstanceGeneratorTest {
 
@@ -58,4 +62,95 @@ public class InstanceGeneratorTest {
         Order order = customer.getOrders().get("ORD001");
         assertTrue(order.getIsReturn());
     }
+
+    @Test
+    public void testStreamingInitialization() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        assertEquals(793, CustomerMapUtils.calculateCustomersNumber(generator.getCustomerMap()));
+        assertEquals(5009, CustomerMapUtils.calculateOrdersNumber(generator.getCustomerMap()));
+        assertEquals(9986, CustomerMapUtils.calculateProductsNumber(generator.getCustomerMap()));
+        assertEquals(2295509.5723, CustomerMapUtils.getTotalSales(generator.getCustomerMap()), 1e-4);
+    }
+
+    private static long countReturnedOrders(InstanceGenerator generator) {
+        return generator.getCustomerMap().values().stream()
+                .flatMap(c -> c.getOrders().values().stream())
+                .filter(Order::getIsReturn)
+                .count();
+    }
+
+    @Test
+    public void testReturnsAppliedAfterOrders() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        generator.setReturnMap(new FileDataProcessor("/SuperStoreReturns.csv"));
+        assertEquals(296, countReturnedOrders(generator));
+    }
+
+    @Test
+    public void testReturnsAppliedBeforeOrders() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.setReturnMap(new FileDataProcessor("/SuperStoreReturns.csv"));
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        assertEquals(296, countReturnedOrders(generator));
+        assertTrue(CustomerMapUtils.getOrderById(generator.getCustomerMap(), "CA-2017-153822").getIsReturn());
+    }
+
+    @Test
+    public void testOrderAndProductIndexes() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+        assertSame(CustomerMapUtils.getOrderById(customerMap, "CA-2016-152156"),
+                CustomerMapUtils.getOrderById(generator, "CA-2016-152156"));
+        assertEquals("CG-12520", generator.getCustomerOfOrder("CA-2016-152156").getCustomerId());
+        assertEquals(CustomerMapUtils.getTotalSalesForOrder(customerMap, "CA-2016-152156"),
+                CustomerMapUtils.getTotalSalesForOrder(generator, "CA-2016-152156"));
+        assertEquals(CustomerMapUtils.getAverageSalesForOrder(customerMap, "CA-2016-152156"),
+                CustomerMapUtils.getAverageSalesForOrder(generator, "CA-2016-152156"));
+        assertEquals("FUR-BO-10001798",
+                CustomerMapUtils.getProductById(generator, "FUR-BO-10001798").getProductId());
+        long lines = customerMap.values().stream().flatMap(c -> c.getOrders().values().stream())
+                .filter(o -> o.getProducts().containsKey("FUR-BO-10001798")).count();
+        assertEquals(lines, generator.getLineItems("FUR-BO-10001798").size());
+        assertNull(generator.getOrder("unknown"));
+        assertTrue(generator.getLineItems("unknown").isEmpty());
+    }
+
+    @Test
+    public void testAddressesAndCategoriesAreShared() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        Set<Address> addresses = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<CategoryInfo> categories = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> segments = Collections.newSetFromMap(new IdentityHashMap<>());
+        generator.getCustomerMap().values().forEach(c -> {
+            segments.add(c.getSegment());
+            c.getOrders().values().forEach(o -> {
+                addresses.add(o.getAddress());
+                o.getProducts().values().forEach(p -> categories.add(p.getCategory()));
+            });
+        });
+        assertEquals(3, segments.size());
+        assertEquals(17, categories.size());
+        assertTrue(addresses.size() < 1000);
+    }
+
+    @Test
+    public void testLineItemsOnlyInFactTable() throws IOException {
+        InstanceGenerator expected = new InstanceGenerator();
+        expected.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        try (FactTable facts = FactTable.offHeap()) {
+            InstanceGenerator generator = new InstanceGenerator(facts);
+            generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+            assertEquals(793, generator.getCustomerMap().size());
+            assertEquals(9986, facts.size());
+            assertNotNull(generator.getOrder("CA-2016-152156"));
+            assertTrue(generator.getOrder("CA-2016-152156").getProducts().isEmpty());
+            assertTrue(generator.getLineItems("FUR-BO-10001798").isEmpty());
+            assertEquals(CustomerMapUtils.getTotalSales(expected.getFactTable()),
+                    CustomerMapUtils.getTotalSales(facts), 1e-6);
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.HashMap;
+
+public class LiveAggregatesTest {
+    private static final String[] NEW_LINE = { "1", "CA-2099-000001", "1.1.2099", "5.1.2099", "Standard Class",
+            "ZZ-10000", "New Customer", "Consumer", "United States", "Boston", "Massachusetts", "2108", "East",
+            "FUR-CH-10000001", "Furniture", "Chairs", "Chair", "100000", "1", "0", "10" };
+
+    private static void assertMatchesScan(InstanceGenerator generator, LiveAggregates live) {
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+        MetricSummary summary = CustomerMapUtils.aggregate(customerMap, EnumSet.allOf(Metric.class));
+        assertEquals(summary.getCount(Metric.CUSTOMERS), live.getCustomerCount());
+        assertEquals(summary.getCount(Metric.ORDERS), live.getOrderCount());
+        assertEquals(summary.getCount(Metric.PRODUCTS), live.getProductCount());
+        assertEquals(summary.get(Metric.TOTAL_SALES), live.getTotalSales(), 1e-6);
+        assertEquals(summary.get(Metric.AVERAGE_SALES_PER_ORDER), live.getAverageSalesPerOrder(), 1e-9);
+        assertEquals(summary.getCount(Metric.TOTAL_QUANTITY), live.getTotalQuantity());
+        assertEquals(summary.get(Metric.TOTAL_PROFIT), live.getTotalProfit(), 1e-6);
+        assertEquals(summary.getBestCustomer().getCustomerId(), live.getBestCustomerId());
+        assertEquals(CustomerMapUtils.getAmountOfSegment(customerMap), live.getCustomersPerSegment());
+        for (Dimension dimension : new Dimension[] { Dimension.REGION, Dimension.STATE, Dimension.YEAR }) {
+            HashMap<String, Double> expected = CustomerMapUtils.getTotalSalesPerFilter(generator.getFactTable(),
+                    dimension.getLabel());
+            HashMap<String, Double> actual = live.getSalesPer(dimension);
+            assertEquals(expected.keySet(), actual.keySet());
+            expected.forEach((key, value) -> assertEquals(value, live.getSales(dimension, key), 1e-6));
+        }
+        Customer customer = customerMap.values().iterator().next();
+        assertEquals(CustomerMapUtils.getTotalSalesForCustomer(customerMap, customer.getCustomerId()),
+                live.getSales(Dimension.CUSTOMER, customer.getCustomerId()), 1e-6);
+    }
+
+    @Test
+    public void testTotalsFollowIngestion() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        LiveAggregates live = new LiveAggregates(generator);
+        assertEquals(0, live.getTotalSales());
+        assertEquals(0, live.getAverageSalesPerOrder());
+        assertNull(live.getBestCustomerId());
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        assertMatchesScan(generator, live);
+
+        generator.addCustomer(NEW_LINE);
+        assertEquals(794, live.getCustomerCount());
+        assertEquals("ZZ-10000", live.getBestCustomerId());
+        assertEquals(100000, live.getSales(Dimension.YEAR, "2099"));
+        assertMatchesScan(generator, live);
+        // a repeated line is not added twice
+        generator.addCustomer(NEW_LINE);
+        assertEquals(9987, live.getProductCount());
+        assertEquals(0, live.getSales(Dimension.REGION, "Atlantis"));
+        assertThrows(IllegalArgumentException.class, () -> live.getSales(Dimension.CITY, "Boston"));
+    }
+
+    @Test
+    public void testRegisteredAfterLoading() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        assertMatchesScan(generator, new LiveAggregates(generator));
+
+        // lines kept only in the fact table are replayed from their rows
+        try (FactTable facts = FactTable.offHeap()) {
+            InstanceGenerator lean = new InstanceGenerator(facts);
+            lean.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+            LiveAggregates live = new LiveAggregates(lean);
+            assertEquals(9986, live.getProductCount());
+            assertEquals(CustomerMapUtils.getTotalSales(facts), live.getTotalSales(), 1e-6);
+            assertEquals(CustomerMapUtils.getTotalSalesPerFilter(facts, "State").get("Texas"),
+                    live.getSales(Dimension.STATE, "Texas"), 1e-6);
+        }
+    }
+
+    @Test
+    public void testParallelLoadIsReported() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        LiveAggregates live = new LiveAggregates(generator);
+        InstanceGenerator partial = new InstanceGenerator();
+        partial.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        generator.merge(partial);
+        assertMatchesScan(generator, live);
+    }
+}
@@ -0,0 +1,59 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadTitlesAndRows() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+        Files.write(file, "﻿Title1;Title2\r\nData1;Data2\r\nData3;Data4".getBytes(StandardCharsets.UTF_8));
+        List<String[]> rows = new ArrayList<>();
+        String[] titles = new MappedCsvReader(file).read(rows::add);
+        assertArrayEquals(new String[] {"Title1", "Title2"}, titles);
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] {"Data1", "Data2"}, rows.get(0));
+        assertArrayEquals(new String[] {"Data3", "Data4"}, rows.get(1));
+    }
+
+    @Test
+    public void testReadAcrossWindows() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+        Files.write(file, "A;B\nÄö;1\nxyz;22\nlast;333\n".getBytes(StandardCharsets.UTF_8));
+        List<String[]> rows = new ArrayList<>();
+        MappedCsvReader reader = new MappedCsvReader(file, 10);
+        reader.read(rows::add);
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[] {"Äö", "1"}, rows.get(0));
+        assertArrayEquals(new String[] {"last", "333"}, rows.get(2));
+        assertEquals(Files.size(file), reader.getConsumedBytes());
+    }
+
+    @Test
+    public void testLineLongerThanWindow() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+        Files.write(file, "A;B\nvery long line;1\nx;y\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> new MappedCsvReader(file, 8).read(row -> { }));
+    }
+
+    @Test
+    public void testFileDataProcessorReadsFileSystemPath() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+        Files.write(file, "Title1;Title2\nData1;Data2\n".getBytes(StandardCharsets.UTF_8));
+        FileDataProcessor processor = new FileDataProcessor(file.toString());
+        List<String[]> rows = processor.processFile();
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[] {"Title1", "Title2"}, processor.getTitles());
+    }
+}
@@ -0,0 +1,70 @@
+package SuperStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Reports the heap retained by the customers loaded from the bundled orders
+ * file and from a synthetic file holding its rows 100 times, each copy with
+ * its own order IDs. Run with {@code ./gradlew benchmark -Pbench=MemoryBenchmark}.
+ */
+public class MemoryBenchmark {
+    private static final int COPIES = 100;
+
+    public static void main(String[] args) throws IOException {
+        Path bundled = Files.createTempFile("orders", ".csv");
+        Path synthetic = Files.createTempFile("orders-x" + COPIES, ".csv");
+        try {
+            try (InputStream in = MemoryBenchmark.class.getResourceAsStream("/SuperStoreOrders.csv")) {
+                Files.write(bundled, in.readAllBytes());
+            }
+            writeSynthetic(bundled, synthetic);
+            report("bundled file", bundled);
+            report(COPIES + "x synthetic file", synthetic);
+        } finally {
+            Files.deleteIfExists(bundled);
+            Files.deleteIfExists(synthetic);
+        }
+    }
+
+    private static void writeSynthetic(Path source, Path target) throws IOException {
+        List<String> lines = Files.readAllLines(source, StandardCharsets.UTF_8);
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writer.write(lines.get(0));
+            writer.newLine();
+            for (int copy = 0; copy < COPIES; copy++) {
+                for (int i = 1; i < lines.size(); i++) {
+                    String[] fields = lines.get(i).split(";", -1);
+                    fields[1] = fields[1] + "-" + copy;
+                    writer.write(String.join(";", fields));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    private static void report(String name, Path file) throws IOException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeap(memory);
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor(file.toString()));
+        long after = usedHeap(memory);
+        System.out.printf("%s: %d orders, %.1f MB retained%n", name,
+                CustomerMapUtils.calculateOrdersNumber(generator.getCustomerMap()),
+                (after - before) / (1024.0 * 1024.0));
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,84 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+
+public class OlapCubeTest {
+    private static final EnumSet<Measure> MEASURES = EnumSet.of(Measure.SALES, Measure.PROFIT, Measure.QUANTITY,
+            Measure.ORDERS);
+    private static FactTable facts;
+    private static OlapCube cube;
+
+    @BeforeAll
+    public static void load() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        facts = generator.getFactTable();
+        cube = OlapCube.build(facts);
+    }
+
+    private static void assertSameAsScan(AggregateQuery query) {
+        GroupByResult expected = CustomerMapUtils.groupBy(facts, query, Parallelism.sequential());
+        GroupByResult actual = cube.query(query);
+        assertEquals(expected.size(), actual.size(), query.toString());
+        for (Measure measure : query.measures()) {
+            expected.toMap(measure).forEach((key, value) -> assertEquals(value, actual.toMap(measure).get(key),
+                    1e-6, query + " " + key));
+        }
+    }
+
+    @Test
+    public void testQueriesMatchScans() {
+        assertSameAsScan(AggregateQuery.of(List.of(), MEASURES));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.REGION), MEASURES));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.STATE), MEASURES));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.CITY), MEASURES));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.YEAR, Dimension.REGION), MEASURES));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.QUARTER, Dimension.CATEGORY), MEASURES));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.MONTH, Dimension.SUB_CATEGORY), MEASURES));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.CATEGORY), MEASURES));
+        assertEquals(5009, cube.query(AggregateQuery.of(List.of(), MEASURES)).get(0, Measure.ORDERS));
+    }
+
+    @Test
+    public void testSlices() {
+        AggregateQuery perState = AggregateQuery.of(List.of(Dimension.STATE), MEASURES);
+        assertSameAsScan(perState.where(Dimension.REGION, "West"));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.MONTH), MEASURES).where(Dimension.YEAR, "2016")
+                .where(Dimension.CATEGORY, "Furniture"));
+        assertSameAsScan(AggregateQuery.of(List.of(Dimension.CATEGORY, Dimension.REGION), MEASURES)
+                .where(Dimension.SUB_CATEGORY, "Chairs"));
+        assertSameAsScan(AggregateQuery.of(List.of(), MEASURES).where(Dimension.CITY, "Seattle"));
+        assertEquals(0, cube.query(perState.where(Dimension.REGION, "Atlantis")).size());
+    }
+
+    @Test
+    public void testRollUpAndDrillDown() {
+        AggregateQuery regions = AggregateQuery.of(List.of(Dimension.REGION, Dimension.YEAR), MEASURES);
+        AggregateQuery states = regions.drillDown(Dimension.REGION);
+        assertEquals(List.of(Dimension.STATE, Dimension.YEAR), states.dimensions());
+        assertSameAsScan(states);
+        AggregateQuery cities = states.drillDown(Dimension.STATE).drillDown(Dimension.YEAR);
+        assertEquals(List.of(Dimension.CITY, Dimension.QUARTER), cities.dimensions());
+        assertSameAsScan(cities);
+        assertThrows(IllegalArgumentException.class, () -> cities.drillDown(Dimension.CITY));
+        assertEquals(regions, states.rollUp(Dimension.STATE));
+        assertEquals(List.of(Dimension.YEAR), regions.rollUp(Dimension.REGION).dimensions());
+        assertThrows(IllegalArgumentException.class, () -> regions.rollUp(Dimension.CITY));
+        AggregateQuery both = AggregateQuery.of(List.of(Dimension.REGION, Dimension.STATE), MEASURES);
+        assertEquals(List.of(Dimension.REGION), both.rollUp(Dimension.STATE).dimensions());
+    }
+
+    @Test
+    public void testUnsupportedQueries() {
+        assertThrows(IllegalArgumentException.class,
+                () -> cube.query(AggregateQuery.of(List.of(Dimension.SEGMENT), MEASURES)));
+        assertThrows(IllegalArgumentException.class,
+                () -> cube.query(AggregateQuery.of(List.of(Dimension.REGION), EnumSet.of(Measure.CUSTOMERS))));
+        assertTrue(cube.getCellCount() > 0);
+    }
+}
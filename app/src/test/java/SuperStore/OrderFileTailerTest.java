@@ -0,0 +1,70 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class OrderFileTailerTest {
+    private static final String TITLES = "Row ID;Order ID;Order Date;Ship Date;Ship Mode;Customer ID;Customer Name;"
+            + "Segment;Country;City;State;Postal Code;Region;Product ID;Category;Sub-Category;Product Name;Sales;"
+            + "Quantity;Discount;Profit\n";
+
+    @TempDir
+    Path tempDir;
+
+    private static String row(int rowId, String orderId, String customerId, String productId) {
+        return rowId + ";" + orderId + ";8.11.2016;11.11.2016;Second Class;" + customerId
+                + ";Claire Gute;Consumer;United States;Henderson;Kentucky;42420;South;" + productId
+                + ";Furniture;Bookcases;Bush Somerset Collection Bookcase;261,96;2;0;41,9136\n";
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void testPollAppliesAppendedRows() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+        Files.write(file, (TITLES + row(1, "CA-2016-152156", "CG-12520", "FUR-BO-10001798"))
+                .getBytes(StandardCharsets.UTF_8));
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor(file.toString()));
+        OrderFileTailer tailer = new OrderFileTailer(file, generator, Files.size(file));
+        assertEquals(0, tailer.poll());
+
+        String second = row(2, "CA-2016-152157", "CG-12520", "FUR-BO-10001799");
+        String third = row(3, "CA-2016-152158", "AB-10015", "FUR-BO-10001800");
+        append(file, second + third.substring(0, 20));
+        assertEquals(1, tailer.poll());
+        assertEquals(2, generator.getCustomerMap().get("CG-12520").getOrders().size());
+        assertFalse(generator.getCustomerMap().containsKey("AB-10015"));
+
+        append(file, third.substring(20));
+        assertEquals(1, tailer.poll());
+        assertTrue(generator.getCustomerMap().containsKey("AB-10015"));
+        assertEquals(Files.size(file), tailer.getOffset());
+    }
+
+    @Test
+    public void testPollFromStartSkipsTitles() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+        Files.write(file, (TITLES + row(1, "CA-2016-152156", "CG-12520", "FUR-BO-10001798"))
+                .getBytes(StandardCharsets.UTF_8));
+        InstanceGenerator generator = new InstanceGenerator();
+        assertEquals(1, new OrderFileTailer(file, generator, 0).poll());
+        assertEquals(1, generator.getCustomerMap().size());
+    }
+
+    @Test
+    public void testTruncatedFile() throws IOException {
+        Path file = tempDir.resolve("orders.csv");
+        Files.write(file, TITLES.getBytes(StandardCharsets.UTF_8));
+        OrderFileTailer tailer = new OrderFileTailer(file, new InstanceGenerator(), Files.size(file) + 1);
+        assertThrows(IOException.class, tailer::poll);
+    }
+}
@@ -0,0 +1,175 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class OrderSnapshotTest {
+
+    // magic, version and the key of the CSV file
+    private static final int SNAPSHOT_HEADER_SIZE = 32;
+
+    @TempDir
+    Path tempDir;
+
+    private Path copyOrders() throws IOException {
+        Path file = tempDir.resolve("SuperStoreOrders.csv");
+        try (InputStream in = getClass().getResourceAsStream("/SuperStoreOrders.csv")) {
+            Files.copy(in, file);
+        }
+        return file;
+    }
+
+    @Test
+    public void testWriteAndLoad() throws IOException {
+        Path file = copyOrders();
+        InstanceGenerator parsed = new InstanceGenerator();
+        parsed.initialization(new FileDataProcessor(file.toString()));
+        OrderSnapshot snapshot = new OrderSnapshot(file);
+        snapshot.write(parsed);
+        assertTrue(Files.isRegularFile(snapshot.getSnapshotFile()));
+
+        InstanceGenerator loaded = new InstanceGenerator();
+        assertTrue(snapshot.load(loaded));
+        assertEquals(793, CustomerMapUtils.calculateCustomersNumber(loaded.getCustomerMap()));
+        assertEquals(5009, CustomerMapUtils.calculateOrdersNumber(loaded.getCustomerMap()));
+        assertEquals(9986, CustomerMapUtils.calculateProductsNumber(loaded.getCustomerMap()));
+        assertEquals(CustomerMapUtils.getTotalSales(parsed.getCustomerMap()),
+                CustomerMapUtils.getTotalSales(loaded.getCustomerMap()), 1e-6);
+
+        Order expected = CustomerMapUtils.getOrderById(parsed.getCustomerMap(), "CA-2016-152156");
+        Order actual = CustomerMapUtils.getOrderById(loaded.getCustomerMap(), "CA-2016-152156");
+        assertEquals(expected.getOrderDate(), actual.getOrderDate());
+        assertEquals(expected.getShipDate(), actual.getShipDate());
+        assertEquals(expected.getAddress().toString(), actual.getAddress().toString());
+        assertEquals(expected.getProducts().keySet(), actual.getProducts().keySet());
+    }
+
+    @Test
+    public void testChangedCsvIsNotLoaded() throws IOException {
+        Path file = copyOrders();
+        InstanceGenerator parsed = new InstanceGenerator();
+        parsed.initialization(new FileDataProcessor(file.toString()));
+        OrderSnapshot snapshot = new OrderSnapshot(file);
+        snapshot.write(parsed);
+        Files.write(file, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertFalse(snapshot.load(new InstanceGenerator()));
+    }
+
+    @Test
+    public void testKeyCoversOnlyParsedBytes() throws IOException {
+        Path file = copyOrders();
+        OrderSnapshot.CsvKey key = OrderSnapshot.CsvKey.of(file);
+        String row = "\n99999;CA-2099-000001;1.1.2099;5.1.2099;Standard Class;ZZ-99999;Late Customer;Consumer;"
+                + "United States;Austin;Texas;73301;Central;FUR-CH-10000001;Furniture;Chairs;Chair;1,0;1;0;0,5\n";
+        // appended after the key was taken, while the file is parsed
+        Files.write(file, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        InstanceGenerator parsed = new InstanceGenerator();
+        new ParallelCsvLoader(file, 2, 64 * 1024).load(parsed, key.getSize());
+        assertEquals(793, CustomerMapUtils.calculateCustomersNumber(parsed.getCustomerMap()));
+        InstanceGenerator all = new InstanceGenerator();
+        new ParallelCsvLoader(file, 2, 64 * 1024).load(all);
+        assertEquals(794, CustomerMapUtils.calculateCustomersNumber(all.getCustomerMap()));
+        OrderSnapshot snapshot = new OrderSnapshot(file);
+        snapshot.write(parsed, key);
+
+        assertTrue(snapshot.load(new InstanceGenerator(), key));
+        assertFalse(snapshot.load(new InstanceGenerator()));
+        assertFalse(snapshot.load(new InstanceGenerator(), OrderSnapshot.CsvKey.of(file)));
+    }
+
+    @Test
+    public void testPartiallyAppendedRowIsLeftToTheTailer() throws IOException {
+        Path file = copyOrders();
+        String row = "99999;CA-2099-000001;1.1.2099;5.1.2099;Standard Class;ZZ-99999;Late Customer;Consumer;"
+                + "United States;Austin;Texas;73301;Central;FUR-CH-10000001;Furniture;Chairs;Chair;1,0;1;0;0,5\n";
+        int cut = row.indexOf("Chairs");
+        // the bundled file has no trailing line break
+        Files.write(file, ("\n" + row.substring(0, cut)).getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        OrderSnapshot.CsvKey key = OrderSnapshot.CsvKey.ofCompleteRows(file);
+        assertEquals(Files.size(file) - cut, key.getSize());
+
+        InstanceGenerator parsed = new InstanceGenerator();
+        new ParallelCsvLoader(file, 2, 64 * 1024).load(parsed, key.getSize());
+        assertEquals(793, CustomerMapUtils.calculateCustomersNumber(parsed.getCustomerMap()));
+        assertEquals(9986, CustomerMapUtils.calculateProductsNumber(parsed.getCustomerMap()));
+        OrderSnapshot snapshot = new OrderSnapshot(file);
+        snapshot.write(parsed, key);
+        assertTrue(snapshot.load(new InstanceGenerator(), OrderSnapshot.CsvKey.ofCompleteRows(file)));
+
+        OrderFileTailer tailer = new OrderFileTailer(file, parsed, key.getSize());
+        assertEquals(0, tailer.poll());
+        Files.write(file, row.substring(cut).getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(1, tailer.poll());
+        assertEquals(794, CustomerMapUtils.calculateCustomersNumber(parsed.getCustomerMap()));
+        assertEquals(9987, CustomerMapUtils.calculateProductsNumber(parsed.getCustomerMap()));
+    }
+
+    @Test
+    public void testGeneratorWithoutProductsIsRejected() throws IOException {
+        Path file = copyOrders();
+        try (FactTable facts = FactTable.offHeap()) {
+            InstanceGenerator factsOnly = new InstanceGenerator(facts);
+            factsOnly.initialization(new FileDataProcessor(file.toString()));
+            OrderSnapshot snapshot = new OrderSnapshot(file);
+            assertThrows(IllegalArgumentException.class, () -> snapshot.write(factsOnly));
+            assertFalse(Files.exists(snapshot.getSnapshotFile()));
+        }
+    }
+
+    @Test
+    public void testMissingOrDamagedSnapshotIsNotLoaded() throws IOException {
+        Path file = copyOrders();
+        OrderSnapshot snapshot = new OrderSnapshot(file);
+        assertFalse(snapshot.load(new InstanceGenerator()));
+        Files.write(snapshot.getSnapshotFile(), new byte[] {1, 2, 3});
+        assertFalse(snapshot.load(new InstanceGenerator()));
+    }
+
+    // overwrites an int of the snapshot, optionally with a matching body checksum
+    private static void damage(Path snapshotFile, int offset, int value, boolean fixChecksum) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+        buffer.putInt(offset, value);
+        if (fixChecksum) {
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), SNAPSHOT_HEADER_SIZE, buffer.capacity() - SNAPSHOT_HEADER_SIZE - Long.BYTES);
+            buffer.putLong(buffer.capacity() - Long.BYTES, crc.getValue());
+        }
+        Files.write(snapshotFile, buffer.array());
+    }
+
+    @Test
+    public void testCorruptedBodyIsNotLoaded() throws IOException {
+        Path file = copyOrders();
+        InstanceGenerator parsed = new InstanceGenerator();
+        parsed.initialization(new FileDataProcessor(file.toString()));
+        OrderSnapshot snapshot = new OrderSnapshot(file);
+        Path snapshotFile = snapshot.getSnapshotFile();
+        int rowCount = SNAPSHOT_HEADER_SIZE;
+        int customerIdCount = rowCount + Integer.BYTES;
+        int[][] damages = {
+            { rowCount, -1 }, { rowCount, 1 << 30 }, { customerIdCount, -5 }, { customerIdCount, 1 << 30 },
+            { customerIdCount + Integer.BYTES, Integer.MAX_VALUE }
+        };
+        for (int[] damage : damages) {
+            snapshot.write(parsed);
+            damage(snapshotFile, damage[0], damage[1], true);
+            InstanceGenerator target = new InstanceGenerator();
+            assertFalse(snapshot.load(target));
+            assertTrue(target.getCustomerMap().isEmpty());
+        }
+
+        snapshot.write(parsed);
+        int anyColumnValue = (int) Files.size(snapshotFile) / 2;
+        damage(snapshotFile, anyColumnValue, 0x7F7F7F7F, false);
+        assertFalse(snapshot.load(new InstanceGenerator()));
+    }
+}
@@ -0,0 +1,123 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+public class ParallelCsvLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path copyOrders() throws IOException {
+        Path file = tempDir.resolve("SuperStoreOrders.csv");
+        try (InputStream in = getClass().getResourceAsStream("/SuperStoreOrders.csv")) {
+            Files.copy(in, file);
+        }
+        return file;
+    }
+
+    private static List<String> flatten(HashMap<String, Customer> customerMap) {
+        List<String> items = new ArrayList<>();
+        customerMap.values().forEach(c -> c.getOrders().values().forEach(o -> o.getProducts().values()
+                .forEach(p -> items.add(c.getCustomerId() + "|" + o.getOrderId() + "|" + o.getAddress().getCity()
+                        + "|" + p.getProductId() + "|" + p.getSales() + "|" + p.getQuantity()))));
+        Collections.sort(items);
+        return items;
+    }
+
+    @Test
+    public void testParallelLoadMatchesSequentialLoad() throws IOException {
+        Path file = copyOrders();
+        InstanceGenerator sequential = new InstanceGenerator();
+        sequential.initialization(new FileDataProcessor(file.toString()));
+
+        ParallelCsvLoader loader = new ParallelCsvLoader(file, 4, 64 * 1024);
+        InstanceGenerator parallel = new InstanceGenerator();
+        loader.load(parallel);
+
+        assertEquals(21, loader.getTitles().length);
+        assertEquals("Row ID", loader.getTitles()[0]);
+        assertEquals(793, parallel.getCustomerMap().size());
+        assertEquals(flatten(sequential.getCustomerMap()), flatten(parallel.getCustomerMap()));
+    }
+
+    @Test
+    public void testIndexesSurviveMerge() throws IOException {
+        InstanceGenerator parallel = new InstanceGenerator();
+        new ParallelCsvLoader(copyOrders(), 4, 64 * 1024).load(parallel);
+        int lineItems = 0;
+        for (Customer customer : parallel.getCustomerMap().values()) {
+            for (Order order : customer.getOrders().values()) {
+                assertSame(order, parallel.getOrder(order.getOrderId()));
+                assertSame(customer, parallel.getCustomerOfOrder(order.getOrderId()));
+                for (Product product : order.getProducts().values()) {
+                    assertTrue(parallel.getLineItems(product.getProductId()).contains(new LineItem(order, product)));
+                    lineItems++;
+                }
+            }
+        }
+        assertEquals(9986, lineItems);
+    }
+
+    @Test
+    public void testFactTableRowsInFileOrder() throws IOException {
+        Path file = copyOrders();
+        InstanceGenerator sequential = new InstanceGenerator();
+        sequential.initialization(new FileDataProcessor(file.toString()));
+        InstanceGenerator parallel = new InstanceGenerator();
+        new ParallelCsvLoader(file, 4, 16 * 1024).load(parallel);
+        FactTable expected = sequential.getFactTable();
+        FactTable actual = parallel.getFactTable();
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            for (Dimension dimension : List.of(Dimension.ORDER, Dimension.PRODUCT)) {
+                assertEquals(expected.dictionary(dimension).decode(expected.code(dimension, row)),
+                        actual.dictionary(dimension).decode(actual.code(dimension, row)));
+            }
+            assertEquals(expected.sales(row), actual.sales(row));
+        }
+    }
+
+    @Test
+    public void testQuotedLineBreakIsNotSplit() throws IOException {
+        StringBuilder csv = new StringBuilder("Row ID;Order ID;Order Date;Ship Date;Ship Mode;Customer ID;"
+                + "Customer Name;Segment;Country;City;State;Postal Code;Region;Product ID;Category;"
+                + "Sub-Category;Product Name;Sales;Quantity;Discount;Profit\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append(i).append(";CA-2099-").append(100000 + i).append(";1.1.2099;5.1.2099;Standard Class;ZZ-")
+                    .append(10000 + i).append(";Customer ").append(i).append(";Consumer;United States;Austin;Texas;")
+                    .append("73301;Central;FUR-CH-").append(10000000 + i).append(";Furniture;Chairs;")
+                    .append("\"Chair\n\"\"Deluxe\"\"; ").append(i).append("\";1,0;1;0;0,5\n");
+        }
+        Path file = tempDir.resolve("quoted.csv");
+        Files.writeString(file, csv);
+
+        InstanceGenerator sequential = new InstanceGenerator();
+        sequential.initialization(new FileDataProcessor(file.toString()));
+        InstanceGenerator parallel = new InstanceGenerator();
+        new ParallelCsvLoader(file, 2, 16).load(parallel);
+
+        assertEquals(20, parallel.getCustomerMap().size());
+        assertEquals(flatten(sequential.getCustomerMap()), flatten(parallel.getCustomerMap()));
+        Product product = parallel.getOrder("CA-2099-100007").getProducts().get("FUR-CH-10000007");
+        assertEquals("Chair\n\"Deluxe\"; 7", product.getProductName());
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path file = tempDir.resolve("empty.csv");
+        Files.write(file, new byte[0]);
+        InstanceGenerator generator = new InstanceGenerator();
+        new ParallelCsvLoader(file, 2, 16).load(generator);
+        assertTrue(generator.getCustomerMap().isEmpty());
+    }
+}
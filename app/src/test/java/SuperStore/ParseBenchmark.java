@@ -0,0 +1,84 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Compares parsing the Sales, Quantity, Discount and Profit columns of the
+ * bundled orders file through strings with {@link DecimalParser}.
+ * Run with {@code ./gradlew benchmark}.
+ */
+public class ParseBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private static double checksum;
+
+    public static void main(String[] args) throws IOException {
+        ByteBuffer buffer;
+        try (InputStream in = ParseBenchmark.class.getResourceAsStream("/SuperStoreOrders.csv")) {
+            buffer = ByteBuffer.wrap(in.readAllBytes());
+        }
+        int start = CsvTokenizer.byteOrderMarkLength(buffer, 0);
+        // skip the titles
+        start = new CsvTokenizer().tokenize(buffer, start, buffer.limit(), true);
+        int rows = countRows(buffer, start);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            countRows(buffer, start);
+            parseWithStrings(buffer, start);
+            parseWithDecimalParser(buffer, start);
+        }
+        long tokenizing = 0;
+        long strings = 0;
+        long parser = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long begin = System.nanoTime();
+            countRows(buffer, start);
+            tokenizing += System.nanoTime() - begin;
+            begin = System.nanoTime();
+            parseWithStrings(buffer, start);
+            strings += System.nanoTime() - begin;
+            begin = System.nanoTime();
+            parseWithDecimalParser(buffer, start);
+            parser += System.nanoTime() - begin;
+        }
+        long total = (long) rows * MEASURED_ROUNDS;
+        System.out.printf("rows: %d, rounds: %d%n", rows, MEASURED_ROUNDS);
+        System.out.printf("tokenizing only:        %.1f ns/row%n", (double) tokenizing / total);
+        System.out.printf("String.replace + parse: %.1f ns/row%n", (double) strings / total);
+        System.out.printf("DecimalParser:          %.1f ns/row%n", (double) parser / total);
+        // the tokenizing cost is the same for both, compare the parsing part only
+        System.out.printf("parsing speedup: %.2fx (checksum %.4f)%n",
+                (double) (strings - tokenizing) / (parser - tokenizing), checksum);
+    }
+
+    private static int countRows(ByteBuffer buffer, int start) {
+        int[] rows = {0};
+        new CsvTokenizer().forEachRecord(buffer, start, buffer.limit(), true, row -> rows[0]++);
+        return rows[0];
+    }
+
+    private static void parseWithStrings(ByteBuffer buffer, int start) {
+        double[] sum = {0};
+        new CsvTokenizer().forEachRecord(buffer, start, buffer.limit(), true, row -> {
+            sum[0] += Double.parseDouble(row.get(17).replace(",", "."));
+            sum[0] += Integer.parseInt(row.get(18).replace(",", ""));
+            sum[0] += Double.parseDouble(row.get(19).replace(",", "."));
+            sum[0] += Double.parseDouble(row.get(20).replace(",", "."));
+        });
+        checksum += sum[0];
+    }
+
+    private static void parseWithDecimalParser(ByteBuffer buffer, int start) {
+        double[] sum = {0};
+        new CsvTokenizer().forEachRecord(buffer, start, buffer.limit(), true, row -> {
+            sum[0] += row.getDouble(17);
+            sum[0] += row.getInt(18);
+            sum[0] += row.getDouble(19);
+            sum[0] += row.getDouble(20);
+        });
+        checksum += sum[0];
+    }
+}
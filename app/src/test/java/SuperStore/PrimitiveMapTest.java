@@ -0,0 +1,47 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveMapTest {
+
+    @Test
+    public void testIntDoubleMap() {
+        IntDoubleMap map = new IntDoubleMap();
+        for (int i = -500; i < 500; i++) {
+            map.addTo(i, 1.5);
+            map.addTo(i, 1);
+        }
+        assertEquals(1000, map.size());
+        assertEquals(2.5, map.get(-500));
+        assertEquals(2.5, map.get(0));
+        assertEquals(0, map.get(500));
+        assertEquals(-1, map.getOrDefault(500, -1));
+        assertFalse(map.containsKey(500));
+        map.put(7, 3);
+        assertEquals(3, map.get(7));
+        double[] sum = new double[1];
+        map.forEach((key, value) -> sum[0] += value);
+        assertEquals(999 * 2.5 + 3, sum[0], 1e-9);
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(7));
+    }
+
+    @Test
+    public void testIntLongAndLongIntMaps() {
+        IntLongMap counts = new IntLongMap(4);
+        LongIntMap rows = new LongIntMap();
+        for (int i = 0; i < 10000; i++) {
+            counts.addTo(i % 7, 1);
+            rows.put((long) i << 32 | i, i);
+        }
+        assertEquals(7, counts.size());
+        assertEquals(1429, counts.get(0));
+        assertEquals(1428, counts.get(6));
+        assertEquals(10000, rows.size());
+        assertEquals(0, rows.getOrDefault(0, -1));
+        assertEquals(9999, rows.get((long) 9999 << 32 | 9999));
+        assertEquals(-1, rows.getOrDefault(1L << 32, -1));
+    }
+}
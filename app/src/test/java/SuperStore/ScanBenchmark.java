@@ -0,0 +1,95 @@
+package SuperStore;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+
+/**
+ * Compares aggregations over the customer map with the same aggregations
+ * over the fact table of the bundled orders file, stored on and off the heap,
+ * and reports the bytes an aggregation allocates besides its result. Run with
+ * {@code ./gradlew benchmark -Pbench=ScanBenchmark}; the allocation figures
+ * need a HotSpot JVM.
+ */
+public class ScanBenchmark {
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    private static double checksum;
+
+    public static void main(String[] args) throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        HashMap<String, Customer> customerMap = generator.getCustomerMap();
+        FactTable facts = generator.getFactTable();
+        FactTable offHeap = FactTable.offHeap();
+        new InstanceGenerator(offHeap).initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            scanMap(customerMap);
+            scanFacts(facts);
+            scanFacts(offHeap);
+        }
+        long map = 0;
+        long columns = 0;
+        long direct = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long begin = System.nanoTime();
+            scanMap(customerMap);
+            map += System.nanoTime() - begin;
+            begin = System.nanoTime();
+            scanFacts(facts);
+            columns += System.nanoTime() - begin;
+            begin = System.nanoTime();
+            scanFacts(offHeap);
+            direct += System.nanoTime() - begin;
+        }
+        System.out.printf("line items: %d, rounds: %d%n", facts.size(), MEASURED_ROUNDS);
+        System.out.printf("customer map: %.1f us/round%n", map / 1000.0 / MEASURED_ROUNDS);
+        System.out.printf("fact table:   %.1f us/round%n", columns / 1000.0 / MEASURED_ROUNDS);
+        System.out.printf("off heap:     %.1f us/round%n", direct / 1000.0 / MEASURED_ROUNDS);
+        System.out.printf("speedup: %.1fx (checksum %.4f)%n", (double) map / columns, checksum);
+
+        IntDoubleMap sums = new IntDoubleMap();
+        for (int i = 0; i < 1000; i++) {
+            sums.addTo(i, 1);
+        }
+        System.out.printf("allocated by 1M IntDoubleMap.addTo: %d bytes%n", allocated(() -> {
+            for (int i = 0; i < 1_000_000; i++) {
+                sums.addTo(i % 1000, 0.5);
+            }
+        }));
+        // a boxed total per order alone would be 5009 * 16 bytes
+        System.out.printf("allocated by sales per region: %d bytes%n",
+                allocated(() -> CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Region")));
+        System.out.printf("allocated by sales per year:   %d bytes%n",
+                allocated(() -> CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Year")));
+    }
+
+    // bytes allocated by the current thread while running the task, without
+    // what measuring itself allocates
+    private static long allocated(Runnable task) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread);
+        long begin = threads.getThreadAllocatedBytes(thread);
+        long overhead = threads.getThreadAllocatedBytes(thread) - begin;
+        begin = threads.getThreadAllocatedBytes(thread);
+        task.run();
+        return threads.getThreadAllocatedBytes(thread) - begin - overhead;
+    }
+
+    // total sales, sales per year and sales per region
+    private static void scanMap(HashMap<String, Customer> customerMap) {
+        checksum += CustomerMapUtils.getTotalSales(customerMap);
+        checksum += CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Year").size();
+        checksum += CustomerMapUtils.getTotalSalesPerFilter(customerMap, "Region").size();
+    }
+
+    private static void scanFacts(FactTable facts) {
+        checksum += CustomerMapUtils.getTotalSales(facts);
+        checksum += CustomerMapUtils.getTotalSalesPerFilter(facts, "Year").size();
+        checksum += CustomerMapUtils.getTotalSalesPerFilter(facts, "Region").size();
+    }
+}
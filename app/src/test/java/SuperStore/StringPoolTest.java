@@ -0,0 +1,31 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class StringPoolTest {
+
+    @Test
+    public void testInternReturnsCanonicalInstance() {
+        StringPool pool = new StringPool();
+        String first = pool.intern(new StringBuilder("Henderson"));
+        assertEquals("Henderson", first);
+        assertSame(first, pool.intern(new String("Henderson")));
+        assertSame(first, pool.intern(new StringBuilder("Henderson")));
+        assertNull(pool.intern((String) null));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testGrow() {
+        StringPool pool = new StringPool();
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = pool.intern("value" + i);
+        }
+        assertEquals(1000, pool.size());
+        for (int i = 0; i < values.length; i++) {
+            assertSame(values[i], pool.intern("value" + i));
+        }
+    }
+}
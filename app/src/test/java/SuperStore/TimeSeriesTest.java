@@ -0,0 +1,107 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class TimeSeriesTest {
+    private static FactTable facts;
+    private static TimeSeries sales;
+
+    @BeforeAll
+    public static void load() throws IOException {
+        InstanceGenerator generator = new InstanceGenerator();
+        generator.initialization(new FileDataProcessor("/SuperStoreOrders.csv"));
+        facts = generator.getFactTable();
+        sales = TimeSeries.build(facts, Measure.SALES);
+    }
+
+    private static void assertSameBuckets(HashMap<String, Double> expected, LinkedHashMap<String, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((key, value) -> assertEquals(value, actual.get(key), 1e-6, key));
+    }
+
+    @Test
+    public void testBucketsMatchGroupBy() {
+        assertEquals(facts.totalSales(), sales.sum(sales.getFirstDay(), sales.getLastDay()), 1e-6);
+        assertSameBuckets(CustomerMapUtils.getTotalSalesPerFilter(facts, "Year"),
+                sales.buckets(TimeSeries.Granularity.YEAR));
+        assertSameBuckets(CustomerMapUtils.getTotalSalesPerFilter(facts, "Quarter"),
+                sales.buckets(TimeSeries.Granularity.QUARTER));
+        assertSameBuckets(CustomerMapUtils.getTotalSalesPerFilter(facts, "Month"),
+                sales.buckets(TimeSeries.Granularity.MONTH));
+        assertEquals(List.of("2014", "2015", "2016", "2017"),
+                List.copyOf(sales.buckets(TimeSeries.Granularity.YEAR).keySet()));
+
+        LinkedHashMap<String, Double> weeks = sales.buckets(TimeSeries.Granularity.WEEK);
+        assertEquals(facts.totalSales(), weeks.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-6);
+        // 7 November 2016 was a Monday
+        int monday = DateDecoder.epochDay(2016, 11, 7);
+        assertEquals(sales.sum(monday, monday + 6), weeks.get("2016/11/07"), 1e-6);
+        assertEquals(sales.get(monday), sales.buckets(TimeSeries.Granularity.DAY).get("2016/11/07"), 1e-6);
+
+        TimeSeries orders = TimeSeries.build(facts, Measure.ORDERS);
+        assertEquals(5009, orders.sum(orders.getFirstDay(), orders.getLastDay()), 1e-9);
+        HashMap<String, Double> ordersPerYear = CustomerMapUtils.groupBy(facts, List.of(Dimension.YEAR),
+                EnumSet.of(Measure.ORDERS)).toMap(Measure.ORDERS);
+        assertSameBuckets(ordersPerYear, orders.buckets(TimeSeries.Granularity.YEAR));
+    }
+
+    @Test
+    public void testRollingWindows() {
+        int end = DateDecoder.epochDay(2016, 12, 31);
+        double expected = 0;
+        for (int day = end - 29; day <= end; day++) {
+            expected += sales.get(day);
+        }
+        assertEquals(expected, sales.rollingSum(end, 30), 1e-6);
+        assertEquals(expected / 30, sales.movingAverage(end, 30), 1e-6);
+        double[] rolling = sales.rollingSums(30);
+        double[] averages = sales.movingAverages(7);
+        for (int i = 0; i < rolling.length; i += 97) {
+            int day = sales.getFirstDay() + i;
+            assertEquals(sales.rollingSum(day, 30), rolling[i], 1e-6);
+            assertEquals(sales.rollingSum(day, 7) / 7, averages[i], 1e-6);
+        }
+        assertEquals(sales.get(sales.getFirstDay()), rolling[0], 1e-6);
+        assertEquals(0, sales.sum(sales.getLastDay() + 1, sales.getLastDay() + 100));
+        assertEquals(0, sales.get(sales.getFirstDay() - 1));
+        assertThrows(IllegalArgumentException.class, () -> sales.rollingSum(end, 0));
+    }
+
+    @Test
+    public void testYearOverYear() {
+        LinkedHashMap<String, Double> years = sales.buckets(TimeSeries.Granularity.YEAR);
+        LinkedHashMap<String, Double> deltas = sales.yearOverYear(TimeSeries.Granularity.YEAR);
+        assertEquals(List.of("2015", "2016", "2017"), List.copyOf(deltas.keySet()));
+        assertEquals(years.get("2016") - years.get("2015"), deltas.get("2016"), 1e-6);
+
+        LinkedHashMap<String, Double> months = sales.buckets(TimeSeries.Granularity.MONTH);
+        LinkedHashMap<String, Double> monthDeltas = sales.yearOverYear(TimeSeries.Granularity.MONTH);
+        assertEquals(36, monthDeltas.size());
+        assertEquals(months.get("2017/03") - months.get("2016/03"), monthDeltas.get("2017/03"), 1e-6);
+
+        LinkedHashMap<String, Double> dayDeltas = sales.yearOverYear(TimeSeries.Granularity.DAY);
+        int leapDay = DateDecoder.epochDay(2016, 2, 29);
+        assertEquals(sales.get(leapDay) - sales.get(DateDecoder.epochDay(2015, 2, 28)), dayDeltas.get("2016/02/29"),
+                1e-6);
+        int monday = DateDecoder.epochDay(2016, 11, 7);
+        assertEquals(sales.sum(monday, monday + 6) - sales.sum(monday - 364, monday - 358),
+                sales.yearOverYear(TimeSeries.Granularity.WEEK).get("2016/11/07"), 1e-6);
+    }
+
+    @Test
+    public void testEmptyAndUnsupported() {
+        TimeSeries empty = TimeSeries.build(new FactTable(), Measure.PROFIT);
+        assertTrue(empty.buckets(TimeSeries.Granularity.MONTH).isEmpty());
+        assertTrue(empty.yearOverYear(TimeSeries.Granularity.YEAR).isEmpty());
+        assertEquals(0, empty.rollingSums(7).length);
+        assertEquals(0, empty.sum(0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> TimeSeries.build(facts, Measure.CUSTOMERS));
+    }
+}
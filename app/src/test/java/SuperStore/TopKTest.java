@@ -0,0 +1,38 @@
+package SuperStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class TopKTest {
+
+    @Test
+    public void testMatchesSort() {
+        Random random = new Random(42);
+        List<Ranked<Integer>> all = new ArrayList<>();
+        TopK<Integer> top = new TopK<>(100);
+        for (int i = 0; i < 10000; i++) {
+            // few distinct values, so ties are frequent
+            double value = random.nextInt(500);
+            all.add(new Ranked<>(i, value));
+            top.offer(i, value);
+        }
+        // a stable sort keeps the first offered of equal values first
+        all.sort(Comparator.comparingDouble((Ranked<Integer> r) -> r.value()).reversed());
+        assertEquals(all.subList(0, 100), top.drain());
+    }
+
+    @Test
+    public void testFewerItemsThanK() {
+        TopK<String> top = new TopK<>(Integer.MAX_VALUE);
+        top.offer("b", 1);
+        top.offer("a", 3);
+        top.offer("c", 2);
+        assertEquals(List.of(new Ranked<>("a", 3.0), new Ranked<>("c", 2.0), new Ranked<>("b", 1.0)), top.drain());
+        assertTrue(new TopK<String>(5).drain().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new TopK<String>(0));
+    }
+}